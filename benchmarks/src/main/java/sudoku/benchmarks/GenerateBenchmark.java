@@ -0,0 +1,35 @@
+package sudoku.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sudoku.Sudoku;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerateBenchmark {
+    @Param({"25", "35"})
+    public int clues;
+
+    // seeded so every run generates the same sequence of puzzles
+    private long seed;
+
+    @Setup(Level.Iteration)
+    public void resetSeed() {
+        this.seed = 0;
+    }
+
+    @Benchmark
+    public int[][] generate() {
+        return Sudoku.generate(this.clues, this.seed++);
+    }
+
+    @Benchmark
+    public int[][] generateUnique() {
+        return Sudoku.generateUnique(this.clues, this.seed++);
+    }
+}
@@ -0,0 +1,41 @@
+package sudoku.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sudoku.Sudoku;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+    private final List<String[]> rows = new ArrayList<>();
+    private final List<String[]> columns = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        for (int[][] puzzle : PuzzleSets.load("easy")) {
+            this.rows.add(PuzzleSets.lines(puzzle, false));
+            this.columns.add(PuzzleSets.lines(puzzle, true));
+        }
+    }
+
+    @Benchmark
+    public int[][] parseRows() {
+        this.next = (this.next + 1) % this.rows.size();
+        return Sudoku.parseRows(this.rows.get(this.next));
+    }
+
+    @Benchmark
+    public int[][] parseColumns() {
+        this.next = (this.next + 1) % this.columns.size();
+        return Sudoku.parseColumns(this.columns.get(this.next));
+    }
+}
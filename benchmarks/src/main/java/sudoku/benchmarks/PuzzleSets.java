@@ -0,0 +1,38 @@
+package sudoku.benchmarks;
+
+import sudoku.PackedBoard;
+import sudoku.PuzzleReader;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+// the benchmark inputs: easy (singles only), seventeen (minimal 17-clue) and hardest (well-known hard puzzles)
+final class PuzzleSets {
+    private PuzzleSets() {
+    }
+
+    static List<int[][]> load(String name) throws IOException {
+        InputStream input = PuzzleSets.class.getResourceAsStream("/puzzles/" + name + ".txt");
+        if (input == null) throw new FileNotFoundException("No Puzzle Set Named " + name);
+
+        try (PuzzleReader reader = new PuzzleReader(input)) {
+            return reader.stream().map(PackedBoard::toArray).toList();
+        }
+    }
+
+    // the same puzzle in the space-separated text the parsers read, one string per row or per column
+    static String[] lines(int[][] board, boolean columns) {
+        String[] lines = new String[9];
+        for (int i = 0; i < 9; ++i) {
+            StringBuilder line = new StringBuilder();
+            for (int j = 0; j < 9; ++j) {
+                if (j > 0) line.append(' ');
+                line.append(columns ? board[j][i] : board[i][j]);
+            }
+            lines[i] = line.toString();
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,40 @@
+package sudoku.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sudoku.Sudoku;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveBenchmark {
+    private List<int[][]> puzzles;
+    private Path file;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.puzzles = PuzzleSets.load("easy");
+        this.file = Files.createTempFile("sudoku-benchmark", ".txt");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    // each call rewrites the same file, so this measures formatting and the open/write/close cycle
+    @Benchmark
+    public void saveToFile() throws IOException {
+        this.next = (this.next + 1) % this.puzzles.size();
+        Sudoku.saveToFile(this.puzzles.get(this.next), this.file.toString());
+    }
+}
@@ -0,0 +1,75 @@
+package sudoku.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sudoku.EmptyPuzzleException;
+import sudoku.OutOfGridException;
+import sudoku.SolverStrategy;
+import sudoku.Sudoku;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolveBenchmark {
+    @Param({"easy", "seventeen", "hardest"})
+    public String set;
+
+    // the reference backtracker needs seconds per puzzle past the easy set, Reference below covers that one
+    @Param({"MINIMUM_REMAINING_VALUES", "BITMASK", "DANCING_LINKS"})
+    public SolverStrategy strategy;
+
+    private List<int[][]> puzzles;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.puzzles = PuzzleSets.load(this.set);
+        // a cache would turn every call after the first round into a lookup
+        Sudoku.setSolutionCache(null);
+    }
+
+    @Benchmark
+    public int[][] solve() throws OutOfGridException, EmptyPuzzleException {
+        int[][] puzzle = this.puzzles.get(this.next);
+        this.next = (this.next + 1) % this.puzzles.size();
+        return Sudoku.solve(puzzle, this.strategy);
+    }
+
+    // the reference backtracker as the baseline the engines are measured against, on the easy set only
+    // and with shorter iterations, since one of its solves takes tens of milliseconds
+    @State(Scope.Thread)
+    @BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 2, time = 1)
+    @Measurement(iterations = 3, time = 1)
+    @Fork(1)
+    public static class Reference {
+        @Param({"easy"})
+        public String set;
+
+        @Param({"BACKTRACKING"})
+        public SolverStrategy strategy;
+
+        private List<int[][]> puzzles;
+        private int next;
+
+        @Setup
+        public void setUp() throws IOException {
+            this.puzzles = PuzzleSets.load(this.set);
+            Sudoku.setSolutionCache(null);
+        }
+
+        @Benchmark
+        public int[][] solve() throws OutOfGridException, EmptyPuzzleException {
+            int[][] puzzle = this.puzzles.get(this.next);
+            this.next = (this.next + 1) % this.puzzles.size();
+            return Sudoku.solve(puzzle, this.strategy);
+        }
+    }
+}
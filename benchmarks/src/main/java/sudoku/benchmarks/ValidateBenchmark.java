@@ -0,0 +1,41 @@
+package sudoku.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import sudoku.EmptyPuzzleException;
+import sudoku.OutOfGridException;
+import sudoku.Sudoku;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidateBenchmark {
+    @Param({"easy", "seventeen", "hardest"})
+    public String set;
+
+    private List<int[][]> puzzles;
+    private final List<int[][]> solutions = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException, OutOfGridException, EmptyPuzzleException {
+        this.puzzles = PuzzleSets.load(this.set);
+        for (int[][] puzzle : this.puzzles) {
+            this.solutions.add(Sudoku.solve(puzzle));
+        }
+    }
+
+    @Benchmark
+    public boolean isSolutionCorrect() throws OutOfGridException, EmptyPuzzleException {
+        int index = this.next;
+        this.next = (this.next + 1) % this.puzzles.size();
+        return Sudoku.isSolutionCorrect(this.puzzles.get(index), this.solutions.get(index));
+    }
+}
@@ -0,0 +1,244 @@
+package sudoku;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// puzzles: an 81-bit clue bitmap followed by the clues packed two per byte
+// solutions: the rank of each of the first 8 rows among the 9! permutations, the last row follows from them
+public final class BinaryPuzzleCodec {
+    public static final int BITMAP_BYTES = 11;
+    public static final int MAX_PUZZLE_BYTES = BITMAP_BYTES + (PackedBoard.CELLS + 1) / 2;
+    public static final int SOLUTION_BYTES = 19;
+
+    private static final int RANK_BITS = 19;
+    private static final int[] FACTORIALS = {1, 1, 2, 6, 24, 120, 720, 5040, 40320};
+    private static final byte[] MAGIC = {'S', 'D', 'K', 1};
+    private static final int WITH_SOLUTIONS = 1;
+
+    private BinaryPuzzleCodec() {
+    }
+
+    public static byte[] encodePuzzle(PackedBoard puzzle) {
+        byte[] encoded = new byte[MAX_PUZZLE_BYTES];
+        int length = encodePuzzle(puzzle, encoded, 0);
+        byte[] trimmed = new byte[length];
+        System.arraycopy(encoded, 0, trimmed, 0, length);
+        return trimmed;
+    }
+
+    // returns the number of bytes written
+    public static int encodePuzzle(PackedBoard puzzle, byte[] out, int offset) {
+        byte[] cells = puzzle.cells();
+        for (int i = 0; i < BITMAP_BYTES; ++i) {
+            out[offset + i] = 0;
+        }
+
+        int position = offset + BITMAP_BYTES, clues = 0;
+        for (int i = 0; i < PackedBoard.CELLS; ++i) {
+            if (cells[i] == 0) continue;
+
+            out[offset + (i >> 3)] |= (byte) (1 << (i & 7));
+            if ((clues & 1) == 0) {
+                out[position] = cells[i];
+            } else {
+                out[position++] |= (byte) (cells[i] << 4);
+            }
+            ++clues;
+        }
+
+        return position - offset + (clues & 1);
+    }
+
+    public static int encodedPuzzleLength(byte[] in, int offset) {
+        int clues = 0;
+        for (int i = 0; i < BITMAP_BYTES; ++i) {
+            clues += Integer.bitCount(in[offset + i] & 0xFF);
+        }
+        return BITMAP_BYTES + (clues + 1) / 2;
+    }
+
+    public static PackedBoard decodePuzzle(byte[] in, int offset) {
+        byte[] cells = new byte[PackedBoard.CELLS];
+        int position = offset + BITMAP_BYTES, clues = 0;
+
+        for (int i = 0; i < PackedBoard.CELLS; ++i) {
+            if ((in[offset + (i >> 3)] & (1 << (i & 7))) == 0) continue;
+
+            int digit = (clues & 1) == 0 ? in[position] & 0x0F : (in[position++] >> 4) & 0x0F;
+            if (digit < 1 || digit > 9) throw new NumberFormatException("Not a Sudoku Digit: " + digit);
+            cells[i] = (byte) digit;
+            ++clues;
+        }
+
+        return new PackedBoard(cells);
+    }
+
+    public static byte[] encodeSolution(PackedBoard solution) {
+        byte[] encoded = new byte[SOLUTION_BYTES];
+        encodeSolution(solution, encoded, 0);
+        return encoded;
+    }
+
+    // only a complete valid grid can be ranked, anything else is an IllegalArgumentException
+    public static int encodeSolution(PackedBoard solution, byte[] out, int offset) {
+        byte[] cells = solution.cells();
+        if (cells.length != PackedBoard.CELLS || !SolutionValidator.isValid(null, cells)) {
+            throw new IllegalArgumentException("Only a Complete, Valid Solution Can Be Encoded!");
+        }
+
+        long buffer = 0;
+        int bits = 0, position = offset;
+
+        for (int r = 0; r < Sudoku.GRID_SIZE - 1; ++r) {
+            buffer |= (long) rankRow(cells, r * 9) << bits;
+            bits += RANK_BITS;
+            while (bits >= 8) {
+                out[position++] = (byte) buffer;
+                buffer >>>= 8;
+                bits -= 8;
+            }
+        }
+        if (bits > 0) out[position++] = (byte) buffer;
+
+        return position - offset;
+    }
+
+    public static PackedBoard decodeSolution(byte[] in, int offset) {
+        byte[] cells = new byte[PackedBoard.CELLS];
+        long buffer = 0;
+        int bits = 0, position = offset;
+        int[] columnMasks = new int[Sudoku.GRID_SIZE];
+
+        for (int r = 0; r < Sudoku.GRID_SIZE - 1; ++r) {
+            while (bits < RANK_BITS) {
+                buffer |= (long) (in[position++] & 0xFF) << bits;
+                bits += 8;
+            }
+            unrankRow((int) (buffer & ((1 << RANK_BITS) - 1)), cells, r * 9);
+            buffer >>>= RANK_BITS;
+            bits -= RANK_BITS;
+
+            for (int c = 0; c < Sudoku.GRID_SIZE; ++c) {
+                columnMasks[c] |= 1 << (cells[r * 9 + c] - 1);
+            }
+        }
+
+        for (int c = 0; c < Sudoku.GRID_SIZE; ++c) {
+            int missing = ~columnMasks[c] & SolverEngine.ALL_DIGITS;
+            if (Integer.bitCount(missing) != 1) throw new NumberFormatException("Not an Encoded Sudoku Solution!");
+            cells[72 + c] = (byte) (Integer.numberOfTrailingZeros(missing) + 1);
+        }
+
+        return new PackedBoard(cells);
+    }
+
+    public static void writeAll(OutputStream output, Iterable<PackedBoard> puzzles) throws IOException {
+        write(output, puzzles.iterator(), null);
+    }
+
+    // each puzzle is followed by its solution
+    public static void writeAll(OutputStream output, List<PackedBoard> puzzles, List<PackedBoard> solutions) throws IOException {
+        if (puzzles.size() != solutions.size()) {
+            throw new IllegalArgumentException("Every Puzzle Needs Exactly One Solution!");
+        }
+        write(output, puzzles.iterator(), solutions.iterator());
+    }
+
+    public static List<PackedBoard> readAll(InputStream input) throws IOException {
+        List<PackedBoard> puzzles = new ArrayList<>();
+        read(input, puzzles, null);
+        return puzzles;
+    }
+
+    // solutions stay empty when the stream was written without them
+    public static void readAll(InputStream input, List<PackedBoard> puzzles, List<PackedBoard> solutions) throws IOException {
+        read(input, puzzles, solutions);
+    }
+
+    private static void write(OutputStream output, Iterator<PackedBoard> puzzles, Iterator<PackedBoard> solutions) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(output, 1 << 16);
+        byte[] record = new byte[MAX_PUZZLE_BYTES + SOLUTION_BYTES];
+
+        buffered.write(MAGIC);
+        buffered.write(solutions == null ? 0 : WITH_SOLUTIONS);
+        while (puzzles.hasNext()) {
+            int length = encodePuzzle(puzzles.next(), record, 0);
+            if (solutions != null) length += encodeSolution(solutions.next(), record, length);
+            buffered.write(record, 0, length);
+        }
+        buffered.flush();
+    }
+
+    private static void read(InputStream input, List<PackedBoard> puzzles, List<PackedBoard> solutions) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(input, 1 << 16));
+        byte[] record = new byte[MAX_PUZZLE_BYTES + SOLUTION_BYTES];
+
+        data.readFully(record, 0, MAGIC.length + 1);
+        for (int i = 0; i < MAGIC.length; ++i) {
+            if (record[i] != MAGIC[i]) throw new IOException("Not a Binary Sudoku Stream!");
+        }
+        boolean withSolutions = (record[MAGIC.length] & WITH_SOLUTIONS) != 0;
+
+        while (true) {
+            int first = data.read();
+            if (first < 0) return;
+
+            record[0] = (byte) first;
+            try {
+                data.readFully(record, 1, BITMAP_BYTES - 1);
+                int length = encodedPuzzleLength(record, 0);
+                data.readFully(record, BITMAP_BYTES, length - BITMAP_BYTES);
+                puzzles.add(decodePuzzle(record, 0));
+
+                if (withSolutions) {
+                    data.readFully(record, length, SOLUTION_BYTES);
+                    PackedBoard solution = decodeSolution(record, length);
+                    if (solutions != null) solutions.add(solution);
+                }
+            } catch (EOFException e) {
+                throw new IOException("The Binary Sudoku Stream Ends in the Middle of a Record!", e);
+            }
+        }
+    }
+
+    private static int rankRow(byte[] cells, int start) {
+        int used = 0, rank = 0;
+        for (int i = 0; i < Sudoku.GRID_SIZE; ++i) {
+            int digit = cells[start + i];
+            if (digit < 1 || digit > 9 || (used & (1 << (digit - 1))) != 0) {
+                throw new IllegalArgumentException("Every Solution Row Must Hold the Digits 1 to 9 Once!");
+            }
+
+            int smallerUnused = Integer.bitCount(~used & ((1 << (digit - 1)) - 1));
+            rank += smallerUnused * FACTORIALS[8 - i];
+            used |= 1 << (digit - 1);
+        }
+        return rank;
+    }
+
+    private static void unrankRow(int rank, byte[] cells, int start) {
+        int unused = SolverEngine.ALL_DIGITS;
+        for (int i = 0; i < Sudoku.GRID_SIZE; ++i) {
+            int index = rank / FACTORIALS[8 - i];
+            rank %= FACTORIALS[8 - i];
+
+            int remaining = unused;
+            for (int k = 0; k < index; ++k) {
+                remaining &= remaining - 1;
+            }
+            int bit = remaining & -remaining;
+            if (bit == 0) throw new NumberFormatException("Not an Encoded Sudoku Solution!");
+
+            cells[start + i] = (byte) (Integer.numberOfTrailingZeros(bit) + 1);
+            unused ^= bit;
+        }
+    }
+}
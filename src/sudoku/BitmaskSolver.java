@@ -0,0 +1,65 @@
+package sudoku;
+
+final class BitmaskSolver extends SolverEngine {
+    @Override
+    boolean solve() {
+        return search(0, 0);
+    }
+
+    private boolean search(int from, int depth) {
+        if (isStopped()) return false;
+        visit(depth);
+        int cell = from;
+        while (cell < CELLS && this.cells[cell] != 0) ++cell;
+        if (cell == CELLS) return true;
+
+        int candidates = candidates(cell);
+        boolean forced = (candidates & (candidates - 1)) == 0;
+        while (candidates != 0) {
+            int bit = candidates & -candidates;
+            candidates ^= bit;
+
+            if (forced) ++this.forcedPlacements;
+            else ++this.guesses;
+
+            place(cell, Integer.numberOfTrailingZeros(bit) + 1);
+            if (search(cell + 1, depth + 1)) return true;
+            remove(cell);
+            ++this.backtracks;
+        }
+
+        return false;
+    }
+
+    @Override
+    int countSolutions(int limit) {
+        if (limit <= 0) return 0;
+        return count(0, 0, limit);
+    }
+
+    private int count(int from, int depth, int limit) {
+        if (isStopped()) return 0;
+        visit(depth);
+        int cell = from;
+        while (cell < CELLS && this.cells[cell] != 0) ++cell;
+        if (cell == CELLS) return 1;
+
+        int found = 0;
+        int candidates = candidates(cell);
+        boolean forced = (candidates & (candidates - 1)) == 0;
+        while (candidates != 0 && found < limit) {
+            int bit = candidates & -candidates;
+            candidates ^= bit;
+
+            if (forced) ++this.forcedPlacements;
+            else ++this.guesses;
+
+            place(cell, Integer.numberOfTrailingZeros(bit) + 1);
+            found += count(cell + 1, depth + 1, limit - found);
+            remove(cell);
+            ++this.backtracks;
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,14 @@
+package sudoku;
+
+// lets another thread stop a solve or a generation, the search notices within a few microseconds
+public final class CancellationToken {
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+}
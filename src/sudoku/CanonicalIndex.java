@@ -0,0 +1,128 @@
+package sudoku;
+
+// open-addressing set of canonical boards, each stored as six longs of 4-bit cells with no per-entry objects
+public class CanonicalIndex {
+    private static final int WORDS = PuzzleKey.WORDS;
+    private static final int MAX_CAPACITY = 1 << 28;
+    private static final double LOAD_FACTOR = 0.7;
+
+    private long[] keys;
+    private int capacity;
+    private int size;
+    // the all-blank board packs to all zeros, which marks a free slot, so it is tracked apart
+    private boolean containsBlankBoard;
+
+    public CanonicalIndex() {
+        this(1 << 16);
+    }
+
+    public CanonicalIndex(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize / LOAD_FACTOR && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        this.capacity = capacity;
+        this.keys = new long[capacity * WORDS];
+    }
+
+    // true when no equivalent board was in the index yet
+    public boolean add(PackedBoard board) {
+        long[] key = new long[WORDS];
+        PuzzleKey.pack(Canonicalizer.canonical(board).cells(), key);
+        synchronized (this) {
+            return insert(key);
+        }
+    }
+
+    public boolean contains(PackedBoard board) {
+        long[] key = new long[WORDS];
+        PuzzleKey.pack(Canonicalizer.canonical(board).cells(), key);
+        synchronized (this) {
+            if (isBlank(key)) return this.containsBlankBoard;
+            return !isFree(this.keys, find(this.keys, this.capacity, key));
+        }
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+
+    private boolean insert(long[] key) {
+        if (isBlank(key)) {
+            if (this.containsBlankBoard) return false;
+            this.containsBlankBoard = true;
+            ++this.size;
+            return true;
+        }
+
+        int slot = find(this.keys, this.capacity, key);
+        if (!isFree(this.keys, slot)) return false;
+
+        // the table never fills past the load factor, at the largest capacity a new board is refused instead
+        if (this.size + 1 > this.capacity * LOAD_FACTOR) {
+            if (this.capacity >= MAX_CAPACITY) throw new IllegalStateException("The Canonical Index Is Full!");
+            grow();
+            slot = find(this.keys, this.capacity, key);
+        }
+
+        System.arraycopy(key, 0, this.keys, slot * WORDS, WORDS);
+        ++this.size;
+        return true;
+    }
+
+    private void grow() {
+        int capacity = this.capacity << 1;
+        long[] keys = new long[capacity * WORDS];
+        long[] key = new long[WORDS];
+        for (int slot = 0; slot < this.capacity; ++slot) {
+            if (isFree(this.keys, slot)) continue;
+
+            System.arraycopy(this.keys, slot * WORDS, key, 0, WORDS);
+            System.arraycopy(key, 0, keys, find(keys, capacity, key) * WORDS, WORDS);
+        }
+
+        this.keys = keys;
+        this.capacity = capacity;
+    }
+
+    // the slot holding the key, or the free slot where it belongs
+    private static int find(long[] keys, int capacity, long[] key) {
+        int slot = hash(key) & (capacity - 1);
+        while (true) {
+            int base = slot * WORDS;
+            boolean free = true, equal = true;
+            for (int i = 0; i < WORDS; ++i) {
+                long word = keys[base + i];
+                if (word != 0) free = false;
+                if (word != key[i]) equal = false;
+            }
+            if (free || equal) return slot;
+
+            slot = (slot + 1) & (capacity - 1);
+        }
+    }
+
+    private static boolean isFree(long[] keys, int slot) {
+        int base = slot * WORDS;
+        for (int i = 0; i < WORDS; ++i) {
+            if (keys[base + i] != 0) return false;
+        }
+        return true;
+    }
+
+    private static boolean isBlank(long[] key) {
+        for (long word : key) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    private static int hash(long[] key) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (long word : key) {
+            h = (h ^ word) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,238 @@
+package sudoku;
+
+import java.util.Arrays;
+
+// maps a board to the smallest equivalent board under transposition, band/stack swaps,
+// row/column swaps inside bands/stacks and digit relabeling; blanks sort before any digit
+// a typical puzzle takes around 0.1 ms, a full grid 1-2 ms since its relabeled rows tie under many column orders
+public final class Canonicalizer {
+    private static final int[][] PERMUTATIONS = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+    private static final int COLUMN_ORDER_COUNT = 6 * 6 * 6 * 6;
+    private static final int[][] COLUMN_ORDERS = new int[COLUMN_ORDER_COUNT][9];
+    // for every clue pattern of a first row, the column orders that push its clues furthest right
+    private static final int[] MINIMAL_MASKS = new int[512];
+    private static final int[][] MINIMAL_ORDERS = new int[512][];
+    private static final long[] NO_LABELS = new long[COLUMN_ORDER_COUNT];
+    private static final int NEXT_LABEL_SHIFT = 40;
+
+    private static final ThreadLocal<Canonicalizer> CANONICALIZERS = ThreadLocal.withInitial(Canonicalizer::new);
+
+    static {
+        int n = 0;
+        for (int[] stacks : PERMUTATIONS) {
+            for (int[] first : PERMUTATIONS) {
+                for (int[] second : PERMUTATIONS) {
+                    for (int[] third : PERMUTATIONS) {
+                        for (int i = 0; i < 3; ++i) {
+                            COLUMN_ORDERS[n][i] = stacks[0] * 3 + first[i];
+                            COLUMN_ORDERS[n][3 + i] = stacks[1] * 3 + second[i];
+                            COLUMN_ORDERS[n][6 + i] = stacks[2] * 3 + third[i];
+                        }
+                        ++n;
+                    }
+                }
+            }
+        }
+
+        int[] orders = new int[COLUMN_ORDER_COUNT];
+        for (int mask = 0; mask < 512; ++mask) {
+            int minimal = Integer.MAX_VALUE, count = 0;
+            for (int order = 0; order < COLUMN_ORDER_COUNT; ++order) {
+                int permuted = permuteMask(mask, COLUMN_ORDERS[order]);
+                if (permuted < minimal) {
+                    minimal = permuted;
+                    count = 0;
+                }
+                if (permuted == minimal) orders[count++] = order;
+            }
+            MINIMAL_MASKS[mask] = minimal;
+            MINIMAL_ORDERS[mask] = Arrays.copyOf(orders, count);
+        }
+    }
+
+    private final int[] grid = new int[PackedBoard.CELLS];
+    private final int[] rowMasks = new int[9];
+    private final int[] candidate = new int[PackedBoard.CELLS];
+    private final int[] best = new int[PackedBoard.CELLS];
+    private int bestRows;
+    // the column orders still tied with the best board at each depth, with their digit labels
+    private final int[][] orders = new int[10][COLUMN_ORDER_COUNT];
+    private final long[][] labels = new long[10][COLUMN_ORDER_COUNT];
+    // first-row orders with duplicates removed, for boards with blank columns
+    private final int[] distinctOrders = new int[COLUMN_ORDER_COUNT];
+    private final long[] orderKeys = new long[COLUMN_ORDER_COUNT];
+
+    public static PackedBoard canonical(PackedBoard board) {
+        return CANONICALIZERS.get().canonicalize(board);
+    }
+
+    public static boolean areEquivalent(PackedBoard first, PackedBoard second) {
+        Canonicalizer canonicalizer = CANONICALIZERS.get();
+        return canonicalizer.canonicalize(first).equals(canonicalizer.canonicalize(second));
+    }
+
+    // not thread-safe, the static helpers keep one instance per thread
+    public PackedBoard canonicalize(PackedBoard board) {
+        byte[] canonical = new byte[PackedBoard.CELLS];
+        canonicalize(board.cells(), canonical);
+        return new PackedBoard(canonical);
+    }
+
+    void canonicalize(byte[] cells, byte[] out) {
+        this.bestRows = 0;
+
+        for (int transposed = 0; transposed < 2; ++transposed) {
+            for (int i = 0; i < 9; ++i) {
+                this.rowMasks[i] = 0;
+            }
+            for (int i = 0; i < PackedBoard.CELLS; ++i) {
+                this.grid[i] = transposed == 0 ? cells[i] : cells[(i % 9) * 9 + i / 9];
+                if (this.grid[i] != 0) this.rowMasks[i / 9] |= 1 << (i % 9);
+            }
+
+            int usedColumns = 0;
+            for (int mask : this.rowMasks) {
+                usedColumns |= mask;
+            }
+
+            int blankBands = 0;
+            for (int r = 0; r < 9; ++r) {
+                int mask = this.rowMasks[r];
+                if (mask == 0) {
+                    if ((blankBands & (1 << (r / 3))) != 0) continue;
+                    blankBands |= 1 << (r / 3);
+                }
+                if (this.bestRows > 0 && MINIMAL_MASKS[mask] > firstRowMask()) continue;
+
+                int[] minimalOrders = MINIMAL_ORDERS[mask];
+                // with fewer than two blank columns every order is already distinct
+                if (Integer.bitCount(usedColumns) > 7) {
+                    expand(0, r, 0, minimalOrders, NO_LABELS, minimalOrders.length);
+                } else {
+                    int count = distinctOrders(minimalOrders, usedColumns);
+                    expand(0, r, 0, this.distinctOrders, NO_LABELS, count);
+                }
+            }
+        }
+
+        for (int i = 0; i < PackedBoard.CELLS; ++i) {
+            out[i] = (byte) this.best[i];
+        }
+    }
+
+    // orders that only differ in where they put blank columns give the same board, so one of each is enough;
+    // this is what keeps nearly blank boards from dragging every column order through all nine rows
+    private int distinctOrders(int[] orders, int usedColumns) {
+        for (int i = 0; i < orders.length; ++i) {
+            int[] columns = COLUMN_ORDERS[orders[i]];
+            long key = 0;
+            for (int k = 0; k < 9; ++k) {
+                if ((usedColumns & (1 << columns[k])) != 0) key |= (long) (columns[k] + 1) << (k * 4);
+            }
+            this.orderKeys[i] = key << 11 | orders[i];
+        }
+        Arrays.sort(this.orderKeys, 0, orders.length);
+
+        int count = 0;
+        long previous = -1;
+        for (int i = 0; i < orders.length; ++i) {
+            long key = this.orderKeys[i] >>> 11;
+            if (key == previous) continue;
+
+            previous = key;
+            this.distinctOrders[count++] = (int) (this.orderKeys[i] & 0x7FF);
+        }
+        return count;
+    }
+
+    private int firstRowMask() {
+        int mask = 0;
+        for (int k = 0; k < 9; ++k) {
+            if (this.best[k] != 0) mask |= 1 << (8 - k);
+        }
+        return mask;
+    }
+
+    private void search(int depth, int usedRows, int band, int count) {
+        if (depth == 9) return;
+
+        int blankBands = 0;
+        for (int r = 0; r < 9; ++r) {
+            if ((usedRows & (1 << r)) != 0) continue;
+
+            int rowBand = r / 3;
+            if (depth % 3 == 0) {
+                if ((usedRows & (7 << (rowBand * 3))) != 0) continue;
+            } else if (rowBand != band) {
+                continue;
+            }
+
+            // two blank rows of one band can be swapped without changing anything
+            if (this.rowMasks[r] == 0) {
+                if ((blankBands & (1 << rowBand)) != 0) continue;
+                blankBands |= 1 << rowBand;
+            }
+
+            expand(depth, r, usedRows, this.orders[depth], this.labels[depth], count);
+        }
+    }
+
+    // places row r at the given depth under every tied column order and keeps the orders that stay tied;
+    // on entry the rows placed so far always equal the first rows of the best board
+    private void expand(int depth, int r, int usedRows, int[] parentOrders, long[] parentLabels, int count) {
+        int base = depth * 9, childCount = 0;
+        int[] childOrders = this.orders[depth + 1];
+        long[] childLabels = this.labels[depth + 1];
+
+        for (int i = 0; i < count; ++i) {
+            int order = parentOrders[i];
+            int[] columns = COLUMN_ORDERS[order];
+            long labels = parentLabels[i];
+            int comparison = this.bestRows > depth ? 0 : -1;
+            boolean worse = false;
+
+            for (int k = 0; k < 9; ++k) {
+                int value = this.grid[r * 9 + columns[k]];
+                if (value != 0) {
+                    int label = (int) (labels >>> (value * 4)) & 15;
+                    if (label == 0) {
+                        label = (int) (labels >>> NEXT_LABEL_SHIFT) + 1;
+                        labels = (labels & ~(15L << NEXT_LABEL_SHIFT)) | (long) label << NEXT_LABEL_SHIFT | (long) label << (value * 4);
+                    }
+                    value = label;
+                }
+
+                if (comparison == 0) {
+                    int bestValue = this.best[base + k];
+                    if (value > bestValue) {
+                        worse = true;
+                        break;
+                    }
+                    if (value < bestValue) comparison = -1;
+                }
+                this.candidate[base + k] = value;
+            }
+            if (worse) continue;
+
+            if (comparison < 0) {
+                System.arraycopy(this.candidate, base, this.best, base, 9);
+                this.bestRows = depth + 1;
+                childCount = 0;
+            }
+            childOrders[childCount] = order;
+            childLabels[childCount] = labels;
+            ++childCount;
+        }
+
+        if (childCount > 0) search(depth + 1, usedRows | (1 << r), r / 3, childCount);
+    }
+
+    // the first output column becomes the highest bit, so smaller masks have their clues further right
+    private static int permuteMask(int mask, int[] columns) {
+        int permuted = 0;
+        for (int k = 0; k < 9; ++k) {
+            if ((mask & (1 << columns[k])) != 0) permuted |= 1 << (8 - k);
+        }
+        return permuted;
+    }
+}
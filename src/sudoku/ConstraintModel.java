@@ -0,0 +1,154 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// the rules of a 9x9 variant as data: groups of cells that hold different digits, plus killer cages with sums
+// cells are numbered row * 9 + column
+public final class ConstraintModel {
+    private final List<int[]> units = new ArrayList<>();
+    private final List<int[]> cageCells = new ArrayList<>();
+    private final List<Integer> cageSums = new ArrayList<>();
+    // the nine disjoint regions that take the place of boxes, null when the rules have none
+    private int[] regionOf;
+    // units before this index are rows, columns and regions, the rest were added on top
+    private int extraStart = 18;
+
+    private ConstraintModel() {
+    }
+
+    // rows and columns only, for building jigsaw layouts or fully custom rules
+    public static ConstraintModel empty() {
+        ConstraintModel model = new ConstraintModel();
+        for (int i = 0; i < 18; ++i) {
+            model.units.add(SolverEngine.UNITS[i].clone());
+        }
+        return model;
+    }
+
+    public static ConstraintModel classic() {
+        ConstraintModel model = empty();
+        for (int i = 18; i < 27; ++i) {
+            model.units.add(SolverEngine.UNITS[i].clone());
+        }
+        model.regionOf = SolverEngine.BOX.clone();
+        model.extraStart = model.units.size();
+        return model;
+    }
+
+    // classic rules plus both main diagonals
+    public static ConstraintModel diagonal() {
+        return classic().addDiagonals();
+    }
+
+    // regions[r][c] names the region of each square, 0 to 8, each region holding nine squares
+    public static ConstraintModel jigsaw(int[][] regions) throws OutOfGridException {
+        if (regions.length != 9) throw new OutOfGridException();
+
+        int[][] members = new int[9][9];
+        int[] filled = new int[9];
+        int[] regionOf = new int[SolverEngine.CELLS];
+        for (int r = 0; r < 9; ++r) {
+            if (regions[r].length != 9) throw new OutOfGridException();
+
+            for (int c = 0; c < 9; ++c) {
+                int region = regions[r][c];
+                if (region < 0 || region > 8 || filled[region] == 9) {
+                    throw new IllegalArgumentException("Region " + region + " at (" + (r + 1) + ", " + (c + 1) + ") is Invalid!");
+                }
+                members[region][filled[region]++] = r * 9 + c;
+                regionOf[r * 9 + c] = region;
+            }
+        }
+
+        ConstraintModel model = empty();
+        for (int[] region : members) {
+            model.addUnit(region);
+        }
+        model.regionOf = regionOf;
+        model.extraStart = model.units.size();
+        return model;
+    }
+
+    // up to nine squares that must all differ, a group of nine holds every digit once
+    public ConstraintModel addUnit(int... cells) {
+        checkCells(cells);
+        this.units.add(cells.clone());
+        return this;
+    }
+
+    public ConstraintModel addDiagonals() {
+        int[] main = new int[9], anti = new int[9];
+        for (int i = 0; i < 9; ++i) {
+            main[i] = i * 9 + i;
+            anti[i] = i * 9 + (8 - i);
+        }
+        return addUnit(main).addUnit(anti);
+    }
+
+    // killer cage: the squares differ and add up to sum
+    public ConstraintModel addCage(int sum, int... cells) {
+        checkCells(cells);
+
+        int smallest = 0, largest = 0;
+        for (int i = 0; i < cells.length; ++i) {
+            smallest += i + 1;
+            largest += 9 - i;
+        }
+        if (sum < smallest || sum > largest) {
+            throw new IllegalArgumentException("A Cage of " + cells.length + " Squares Cannot Sum to " + sum + "!");
+        }
+
+        this.cageCells.add(cells.clone());
+        this.cageSums.add(sum);
+        return this;
+    }
+
+    public int getUnitCount() {
+        return this.units.size();
+    }
+
+    public int getCageCount() {
+        return this.cageCells.size();
+    }
+
+    List<int[]> units() {
+        return this.units;
+    }
+
+    List<int[]> cageCells() {
+        return this.cageCells;
+    }
+
+    List<Integer> cageSums() {
+        return this.cageSums;
+    }
+
+    int[] regionOf() {
+        return this.regionOf;
+    }
+
+    List<int[]> extraUnits() {
+        return this.units.subList(this.extraStart, this.units.size());
+    }
+
+    private static void checkCells(int[] cells) {
+        if (cells.length == 0 || cells.length > 9) {
+            throw new IllegalArgumentException("A Group Must Hold Between 1 and 9 Squares!");
+        }
+
+        long low = 0, high = 0;
+        for (int cell : cells) {
+            if (cell < 0 || cell >= SolverEngine.CELLS) {
+                throw new IllegalArgumentException("Square " + cell + " is Outside the Grid!");
+            }
+
+            long bit = 1L << (cell & 63);
+            if (cell < 64 ? (low & bit) != 0 : (high & bit) != 0) {
+                throw new IllegalArgumentException("Square " + cell + " Appears Twice in a Group!");
+            }
+            if (cell < 64) low |= bit;
+            else high |= bit;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package sudoku;
+
+final class DancingLinksSolver extends SolverEngine {
+    private static final int COLUMNS = 4 * CELLS;
+    private static final int CANDIDATES = 9 * CELLS;
+    private static final int ROOT = 0;
+    private static final int FIRST_ROW_NODE = COLUMNS + 1;
+    private static final int NODES = FIRST_ROW_NODE + 4 * CANDIDATES;
+
+    // the whole exact-cover matrix is linked once and restored after every solve
+    private final int[] left = new int[NODES];
+    private final int[] right = new int[NODES];
+    private final int[] up = new int[NODES];
+    private final int[] down = new int[NODES];
+    private final int[] header = new int[NODES];
+    private final int[] size = new int[COLUMNS + 1];
+
+    private final int[] givens = new int[CELLS];
+    private final int[] chosen = new int[CELLS];
+
+    DancingLinksSolver() {
+        for (int i = 0; i <= COLUMNS; ++i) {
+            this.left[i] = i == 0 ? COLUMNS : i - 1;
+            this.right[i] = i == COLUMNS ? 0 : i + 1;
+            this.up[i] = i;
+            this.down[i] = i;
+            this.header[i] = i;
+        }
+
+        for (int candidate = 0; candidate < CANDIDATES; ++candidate) {
+            int cell = candidate / 9, digit = candidate % 9;
+            int[] columns = {
+                    cell,
+                    CELLS + ROW[cell] * 9 + digit,
+                    2 * CELLS + COLUMN[cell] * 9 + digit,
+                    3 * CELLS + BOX[cell] * 9 + digit
+            };
+
+            int first = FIRST_ROW_NODE + candidate * 4;
+            for (int k = 0; k < 4; ++k) {
+                int node = first + k, column = columns[k] + 1;
+                this.left[node] = first + (k + 3) % 4;
+                this.right[node] = first + (k + 1) % 4;
+                this.header[node] = column;
+                this.down[node] = column;
+                this.up[node] = this.up[column];
+                this.down[this.up[column]] = node;
+                this.up[column] = node;
+                ++this.size[column];
+            }
+        }
+    }
+
+    @Override
+    boolean solve() {
+        int givenCount = selectGivens();
+        boolean found = search(0);
+        deselectGivens(givenCount);
+
+        return found;
+    }
+
+    @Override
+    int countSolutions(int limit) {
+        if (limit <= 0) return 0;
+
+        int givenCount = selectGivens();
+        int found = count(0, limit);
+        deselectGivens(givenCount);
+
+        return found;
+    }
+
+    private int selectGivens() {
+        int givenCount = 0;
+        for (int cell = 0; cell < CELLS; ++cell) {
+            if (this.cells[cell] == 0) continue;
+
+            int node = rowNode(cell, this.cells[cell]);
+            select(node);
+            this.givens[givenCount++] = node;
+        }
+        return givenCount;
+    }
+
+    private void deselectGivens(int givenCount) {
+        while (givenCount > 0) {
+            deselect(this.givens[--givenCount]);
+        }
+    }
+
+    private boolean search(int depth) {
+        if (isStopped()) return false;
+        visit(depth);
+        if (this.right[ROOT] == ROOT) {
+            for (int i = 0; i < depth; ++i) {
+                int candidate = (this.chosen[i] - FIRST_ROW_NODE) / 4;
+                place(candidate / 9, candidate % 9 + 1);
+            }
+            return true;
+        }
+
+        int column = smallestColumn();
+        if (this.size[column] == 0) return false;
+
+        boolean found = false;
+        boolean forced = this.size[column] == 1;
+        cover(column);
+        for (int node = this.down[column]; node != column && !found; node = this.down[node]) {
+            if (forced) ++this.forcedPlacements;
+            else ++this.guesses;
+
+            this.chosen[depth] = node;
+            for (int j = this.right[node]; j != node; j = this.right[j]) cover(this.header[j]);
+            found = search(depth + 1);
+            for (int j = this.left[node]; j != node; j = this.left[j]) uncover(this.header[j]);
+            if (!found) ++this.backtracks;
+        }
+        uncover(column);
+
+        return found;
+    }
+
+    private int count(int depth, int limit) {
+        if (isStopped()) return 0;
+        visit(depth);
+        if (this.right[ROOT] == ROOT) return 1;
+
+        int column = smallestColumn();
+        if (this.size[column] == 0) return 0;
+
+        int found = 0;
+        boolean forced = this.size[column] == 1;
+        cover(column);
+        for (int node = this.down[column]; node != column && found < limit; node = this.down[node]) {
+            if (forced) ++this.forcedPlacements;
+            else ++this.guesses;
+
+            for (int j = this.right[node]; j != node; j = this.right[j]) cover(this.header[j]);
+            found += count(depth + 1, limit - found);
+            for (int j = this.left[node]; j != node; j = this.left[j]) uncover(this.header[j]);
+            ++this.backtracks;
+        }
+        uncover(column);
+
+        return found;
+    }
+
+    private int smallestColumn() {
+        int column = this.right[ROOT];
+        for (int c = this.right[column]; c != ROOT; c = this.right[c]) {
+            if (this.size[c] < this.size[column]) column = c;
+        }
+        return column;
+    }
+
+    private int rowNode(int cell, int digit) {
+        return FIRST_ROW_NODE + (cell * 9 + digit - 1) * 4;
+    }
+
+    private void select(int node) {
+        cover(this.header[node]);
+        for (int j = this.right[node]; j != node; j = this.right[j]) cover(this.header[j]);
+    }
+
+    private void deselect(int node) {
+        for (int j = this.left[node]; j != node; j = this.left[j]) uncover(this.header[j]);
+        uncover(this.header[node]);
+    }
+
+    private void cover(int column) {
+        this.right[this.left[column]] = this.right[column];
+        this.left[this.right[column]] = this.left[column];
+
+        for (int i = this.down[column]; i != column; i = this.down[i]) {
+            for (int j = this.right[i]; j != i; j = this.right[j]) {
+                this.down[this.up[j]] = this.down[j];
+                this.up[this.down[j]] = this.up[j];
+                --this.size[this.header[j]];
+            }
+        }
+    }
+
+    private void uncover(int column) {
+        for (int i = this.up[column]; i != column; i = this.up[i]) {
+            for (int j = this.left[i]; j != i; j = this.left[j]) {
+                ++this.size[this.header[j]];
+                this.down[this.up[j]] = j;
+                this.up[this.down[j]] = j;
+            }
+        }
+
+        this.right[this.left[column]] = column;
+        this.left[this.right[column]] = column;
+    }
+}
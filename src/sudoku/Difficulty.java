@@ -0,0 +1,8 @@
+package sudoku;
+
+public enum Difficulty {
+    EASY,
+    MEDIUM,
+    HARD,
+    EXPERT
+}
@@ -0,0 +1,51 @@
+package sudoku;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+// rates a puzzle by the techniques a person needs to solve it, keeps its own scratch state so use one per thread
+public class DifficultyRater {
+    private static final ThreadLocal<DifficultyRater> RATERS = ThreadLocal.withInitial(DifficultyRater::new);
+
+    private final LogicalSolver logic = new LogicalSolver();
+
+    public Rating rate(int[][] puzzle) throws OutOfGridException {
+        return rate(PackedBoard.of(puzzle));
+    }
+
+    // null when the givens clash
+    public Rating rate(PackedBoard puzzle) {
+        return rate(puzzle.cells());
+    }
+
+    Rating rate(byte[] puzzle) {
+        LogicalSolver logic = this.logic;
+        if (!logic.load(puzzle)) return null;
+
+        Technique hardest = Technique.NAKED_SINGLE;
+        int score = 0, steps = 0;
+        while (!logic.isSolved()) {
+            logic.clearAffected();
+            if (logic.isBroken() || !logic.step()) {
+                return new Rating(Technique.BRUTE_FORCE, score + Technique.BRUTE_FORCE.getWeight(), steps, false);
+            }
+
+            if (logic.technique.compareTo(hardest) > 0) hardest = logic.technique;
+            score += logic.technique.getWeight();
+            ++steps;
+        }
+        return new Rating(hardest, score, steps, true);
+    }
+
+    // rates every puzzle of a one-per-line file in parallel, in file order
+    public static List<Rating> rateAll(Path path) throws IOException {
+        return rateAll(new MappedPuzzleReader(path).readAll());
+    }
+
+    public static List<Rating> rateAll(List<PackedBoard> puzzles) {
+        return puzzles.parallelStream()
+                .map(puzzle -> RATERS.get().rate(puzzle))
+                .toList();
+    }
+}
@@ -0,0 +1,396 @@
+package sudoku;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// k*k by k*k puzzles (4x4, 16x16, 25x25, ...) with one long bitset of digits per row, column and box
+// keeps its own scratch state, so use one instance per thread
+public class GeneralizedSudoku {
+    public static final int MIN_BOX_SIZE = 2;
+    public static final int MAX_BOX_SIZE = 8;
+    private static final int GENERATION_NODES_PER_CELL = 4;
+    private static final int RETRY_NODES_PER_CELL = 8;
+    private static final int FILL_NODES_PER_CELL = 4;
+    private static final int FILL_ATTEMPTS = 8;
+
+    private final int boxSize;
+    private final int size;
+    private final int cellCount;
+    private final long allDigits;
+    private final int[] rowOf;
+    private final int[] columnOf;
+    private final int[] boxOf;
+    private final int[][] units;
+
+    private final int[] cells;
+    private final long[] rowMasks;
+    private final long[] columnMasks;
+    private final long[] boxMasks;
+    private final int[] firstSolution;
+    private int solutions;
+    private int limit;
+    private long nodes;
+    private long nodeLimit;
+    // set while filling a grid, so the digits of a square are tried in a random order
+    private RandomGenerator random;
+
+    public GeneralizedSudoku(int boxSize) {
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Box Size Must Be Between " + MIN_BOX_SIZE + " and " + MAX_BOX_SIZE + "!");
+        }
+
+        this.boxSize = boxSize;
+        this.size = boxSize * boxSize;
+        this.cellCount = this.size * this.size;
+        this.allDigits = this.size == 64 ? -1L : (1L << this.size) - 1;
+
+        this.rowOf = new int[this.cellCount];
+        this.columnOf = new int[this.cellCount];
+        this.boxOf = new int[this.cellCount];
+        this.units = new int[3 * this.size][this.size];
+        int[] filled = new int[3 * this.size];
+        for (int cell = 0; cell < this.cellCount; ++cell) {
+            int row = cell / this.size, column = cell % this.size;
+            int box = (row / boxSize) * boxSize + column / boxSize;
+            this.rowOf[cell] = row;
+            this.columnOf[cell] = column;
+            this.boxOf[cell] = box;
+            this.units[row][filled[row]++] = cell;
+            this.units[this.size + column][filled[this.size + column]++] = cell;
+            this.units[2 * this.size + box][filled[2 * this.size + box]++] = cell;
+        }
+
+        this.cells = new int[this.cellCount];
+        this.rowMasks = new long[this.size];
+        this.columnMasks = new long[this.size];
+        this.boxMasks = new long[this.size];
+        this.firstSolution = new int[this.cellCount];
+    }
+
+    public int getBoxSize() {
+        return this.boxSize;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    // null when the board has no solution or holds digits outside 1..size
+    public int[][] solve(int[][] board) throws OutOfGridException {
+        checkShape(board);
+        if (!load(board) || countSolutions(1) == 0) return null;
+
+        int[][] solution = new int[this.size][this.size];
+        for (int cell = 0; cell < this.cellCount; ++cell) {
+            solution[this.rowOf[cell]][this.columnOf[cell]] = this.firstSolution[cell];
+        }
+        return solution;
+    }
+
+    public int countSolutions(int[][] board, int limit) throws OutOfGridException {
+        checkShape(board);
+        if (!load(board)) return 0;
+
+        return countSolutions(limit);
+    }
+
+    public boolean hasUniqueSolution(int[][] board) throws OutOfGridException {
+        return countSolutions(board, 2) == 1;
+    }
+
+    // a single pass that checks every unit holds each digit once and that the givens were kept
+    public boolean isSolutionCorrect(int[][] initialBoard, int[][] solution) throws OutOfGridException {
+        checkShape(initialBoard);
+        checkShape(solution);
+
+        long[] columns = this.columnMasks, boxes = this.boxMasks;
+        for (int i = 0; i < this.size; ++i) {
+            columns[i] = 0;
+            boxes[i] = 0;
+        }
+
+        for (int r = 0; r < this.size; ++r) {
+            long row = 0;
+            for (int c = 0; c < this.size; ++c) {
+                int digit = solution[r][c];
+                if (digit < 1 || digit > this.size) return false;
+
+                int given = initialBoard[r][c];
+                if (given != 0 && given != digit) return false;
+
+                long bit = 1L << (digit - 1);
+                int box = (r / this.boxSize) * this.boxSize + c / this.boxSize;
+                if ((row & bit) != 0 || (columns[c] & bit) != 0 || (boxes[box] & bit) != 0) return false;
+
+                row |= bit;
+                columns[c] |= bit;
+                boxes[box] |= bit;
+            }
+        }
+        return true;
+    }
+
+    public boolean isNumberValid(int[][] board, int number, int numberRow, int numberColumn) {
+        for (int i = 0; i < this.size; ++i) {
+            if (i != numberColumn && board[numberRow][i] == number) return false;
+            if (i != numberRow && board[i][numberColumn] == number) return false;
+        }
+
+        int startingRowIndex = numberRow - numberRow % this.boxSize;
+        int startingColumnIndex = numberColumn - numberColumn % this.boxSize;
+        for (int i = startingRowIndex; i < startingRowIndex + this.boxSize; ++i) {
+            for (int j = startingColumnIndex; j < startingColumnIndex + this.boxSize; ++j) {
+                if (i == numberRow && j == numberColumn) continue;
+                if (board[i][j] == number) return false;
+            }
+        }
+
+        return true;
+    }
+
+    public int[][] generate(int numberOfSquaresToFill) {
+        return generate(numberOfSquaresToFill, new SplittableRandom());
+    }
+
+    public int[][] generate(int numberOfSquaresToFill, long seed) {
+        return generate(numberOfSquaresToFill, new SplittableRandom(seed));
+    }
+
+    // removes squares in a random order as long as the puzzle keeps a single solution
+    public int[][] generate(int numberOfSquaresToFill, RandomGenerator random) {
+        int[][] game = createSolvedBoard(random);
+
+        int[] order = new int[this.cellCount];
+        for (int i = 0; i < this.cellCount; ++i) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+
+        // a check that runs past its budget keeps the square for now, and those squares get one more try
+        // with a larger budget once every other square has been tried
+        int clues = this.cellCount, deferred = 0;
+        for (int i = 0; i < this.cellCount && clues > numberOfSquaresToFill; ++i) {
+            int result = tryRemove(game, order[i], GENERATION_NODES_PER_CELL);
+            if (result == 1) --clues;
+            else if (result < 0) order[deferred++] = order[i];
+        }
+        for (int i = 0; i < deferred && clues > numberOfSquaresToFill; ++i) {
+            if (tryRemove(game, order[i], RETRY_NODES_PER_CELL) == 1) --clues;
+        }
+        return game;
+    }
+
+    // 1 when the square could go, 0 when it had to stay and -1 when the check ran past its budget
+    private int tryRemove(int[][] game, int cell, int nodesPerCell) {
+        int r = this.rowOf[cell], c = this.columnOf[cell];
+        int digit = game[r][c];
+        game[r][c] = 0;
+
+        int solutions = load(game) ? countSolutions(2, (long) nodesPerCell * this.cellCount) : 0;
+        if (solutions != 1) game[r][c] = digit;
+        return solutions < 0 ? -1 : solutions == 1 ? 1 : 0;
+    }
+
+    // a randomised search over the candidate masks, so solution grids are not isomorphic to each other
+    // filling gets harder as the grid grows, so a fill that runs past its budget falls back to a pattern grid
+    public int[][] createSolvedBoard(RandomGenerator random) {
+        int[][] game = new int[this.size][this.size];
+        for (int attempt = 0; attempt < FILL_ATTEMPTS; ++attempt) {
+            load(game);
+            this.random = random;
+            int solutions;
+            try {
+                solutions = countSolutions(1, FILL_NODES_PER_CELL * this.cellCount);
+            } finally {
+                this.random = null;
+            }
+
+            if (solutions == 1) {
+                for (int cell = 0; cell < this.cellCount; ++cell) {
+                    game[this.rowOf[cell]][this.columnOf[cell]] = this.firstSolution[cell];
+                }
+                return game;
+            }
+        }
+        return createPatternBoard(random);
+    }
+
+    // relabelling digits and permuting bands, stacks, rows and columns keeps the pattern grid valid,
+    // but every grid it gives is isomorphic to the same one
+    private int[][] createPatternBoard(RandomGenerator random) {
+        int[] digits = shuffledIdentity(this.size, random);
+        int[] rows = shuffledLines(random);
+        int[] columns = shuffledLines(random);
+
+        int[][] game = new int[this.size][this.size];
+        for (int r = 0; r < this.size; ++r) {
+            int row = rows[r];
+            for (int c = 0; c < this.size; ++c) {
+                int column = columns[c];
+                int pattern = (this.boxSize * (row % this.boxSize) + row / this.boxSize + column) % this.size;
+                game[r][c] = digits[pattern] + 1;
+            }
+        }
+        return game;
+    }
+
+    private int[] shuffledLines(RandomGenerator random) {
+        int[] bands = shuffledIdentity(this.boxSize, random);
+        int[] lines = new int[this.size];
+        for (int band = 0; band < this.boxSize; ++band) {
+            int[] within = shuffledIdentity(this.boxSize, random);
+            for (int i = 0; i < this.boxSize; ++i) {
+                lines[band * this.boxSize + i] = bands[band] * this.boxSize + within[i];
+            }
+        }
+        return lines;
+    }
+
+    private static int[] shuffledIdentity(int length, RandomGenerator random) {
+        int[] values = new int[length];
+        for (int i = 0; i < length; ++i) {
+            int j = random.nextInt(i + 1);
+            values[i] = values[j];
+            values[j] = i;
+        }
+        return values;
+    }
+
+    private void checkShape(int[][] board) throws OutOfGridException {
+        if (board.length != this.size) throw new OutOfGridException(this.size);
+        for (int[] row : board) {
+            if (row.length != this.size) throw new OutOfGridException(this.size);
+        }
+    }
+
+    // false when a digit is out of range or two givens clash
+    private boolean load(int[][] board) {
+        for (int i = 0; i < this.size; ++i) {
+            this.rowMasks[i] = 0;
+            this.columnMasks[i] = 0;
+            this.boxMasks[i] = 0;
+        }
+
+        for (int cell = 0; cell < this.cellCount; ++cell) {
+            int digit = board[this.rowOf[cell]][this.columnOf[cell]];
+            this.cells[cell] = 0;
+            if (digit == 0) continue;
+            if (digit < 0 || digit > this.size || (candidates(cell) & (1L << (digit - 1))) == 0) return false;
+            place(cell, digit);
+        }
+        return true;
+    }
+
+    private long candidates(int cell) {
+        return ~(this.rowMasks[this.rowOf[cell]] | this.columnMasks[this.columnOf[cell]] | this.boxMasks[this.boxOf[cell]])
+                & this.allDigits;
+    }
+
+    private void place(int cell, int digit) {
+        long bit = 1L << (digit - 1);
+        this.cells[cell] = digit;
+        this.rowMasks[this.rowOf[cell]] |= bit;
+        this.columnMasks[this.columnOf[cell]] |= bit;
+        this.boxMasks[this.boxOf[cell]] |= bit;
+    }
+
+    private void remove(int cell, int digit) {
+        long bit = ~(1L << (digit - 1));
+        this.cells[cell] = 0;
+        this.rowMasks[this.rowOf[cell]] &= bit;
+        this.columnMasks[this.columnOf[cell]] &= bit;
+        this.boxMasks[this.boxOf[cell]] &= bit;
+    }
+
+    private int countSolutions(int limit) {
+        return countSolutions(limit, Long.MAX_VALUE);
+    }
+
+    // -1 when the search needs more than nodeLimit nodes
+    private int countSolutions(int limit, long nodeLimit) {
+        // a limit of zero or less counts nothing, as in the 9x9 engines
+        if (limit <= 0) return 0;
+
+        this.solutions = 0;
+        this.limit = limit;
+        this.nodes = 0;
+        this.nodeLimit = nodeLimit;
+        search();
+        return this.nodes > nodeLimit ? -1 : this.solutions;
+    }
+
+    // branches on the square with the fewest candidates, unless a digit has only one place left in some unit
+    private boolean search() {
+        if (++this.nodes > this.nodeLimit) return true;
+
+        int bestCell = -1, bestCount = Integer.MAX_VALUE;
+        long bestMask = 0;
+        for (int cell = 0; cell < this.cellCount; ++cell) {
+            if (this.cells[cell] != 0) continue;
+
+            long mask = candidates(cell);
+            int count = Long.bitCount(mask);
+            if (count == 0) return false;
+            if (count < bestCount) {
+                bestCell = cell;
+                bestCount = count;
+                bestMask = mask;
+                if (count == 1) break;
+            }
+        }
+
+        if (bestCell < 0) {
+            if (this.solutions++ == 0) System.arraycopy(this.cells, 0, this.firstSolution, 0, this.cellCount);
+            return this.solutions >= this.limit;
+        }
+
+        if (bestCount > 1) {
+            for (int[] unit : this.units) {
+                long once = 0, twice = 0, placed = 0;
+                for (int cell : unit) {
+                    if (this.cells[cell] != 0) {
+                        placed |= 1L << (this.cells[cell] - 1);
+                        continue;
+                    }
+
+                    long mask = candidates(cell);
+                    twice |= once & mask;
+                    once |= mask;
+                }
+                if ((once | placed) != this.allDigits) return false;
+
+                long hidden = once & ~twice;
+                if (hidden == 0) continue;
+
+                long bit = hidden & -hidden;
+                for (int cell : unit) {
+                    if (this.cells[cell] == 0 && (candidates(cell) & bit) != 0) {
+                        bestCell = cell;
+                        bestMask = bit;
+                        break;
+                    }
+                }
+                break;
+            }
+        }
+
+        for (long mask = bestMask; mask != 0; ) {
+            long bit = this.random == null ? mask & -mask : randomBit(mask);
+            mask &= ~bit;
+            int digit = Long.numberOfTrailingZeros(bit) + 1;
+            place(bestCell, digit);
+            boolean done = search();
+            remove(bestCell, digit);
+            if (done) return true;
+        }
+        return false;
+    }
+
+    private long randomBit(long mask) {
+        for (int skip = this.random.nextInt(Long.bitCount(mask)); skip > 0; --skip) {
+            mask &= mask - 1;
+        }
+        return mask & -mask;
+    }
+}
@@ -0,0 +1,75 @@
+package sudoku;
+
+public class GeneratedPuzzle {
+    private final PackedBoard puzzle;
+    private final PackedBoard solution;
+    private final int clues;
+    private final Difficulty difficulty;
+    private final Difficulty targetDifficulty;
+    private final int solverCalls;
+    private final SolveStatus stopReason;
+
+    GeneratedPuzzle(PackedBoard puzzle, PackedBoard solution, int clues, Difficulty difficulty, Difficulty targetDifficulty,
+                    int solverCalls, SolveStatus stopReason) {
+        this.puzzle = puzzle;
+        this.solution = solution;
+        this.clues = clues;
+        this.difficulty = difficulty;
+        this.targetDifficulty = targetDifficulty;
+        this.solverCalls = solverCalls;
+        this.stopReason = stopReason;
+    }
+
+    public int[][] getPuzzle() {
+        return this.puzzle.toArray();
+    }
+
+    public int[][] getSolution() {
+        return this.solution.toArray();
+    }
+
+    public PackedBoard getPackedPuzzle() {
+        return this.puzzle;
+    }
+
+    public PackedBoard getPackedSolution() {
+        return this.solution;
+    }
+
+    public int getClues() {
+        return this.clues;
+    }
+
+    public Difficulty getDifficulty() {
+        return this.difficulty;
+    }
+
+    // null when the puzzle was made for a number of clues
+    public Difficulty getTargetDifficulty() {
+        return this.targetDifficulty;
+    }
+
+    // false when no attempt reached the difficulty that was asked for
+    public boolean isOnTarget() {
+        return this.targetDifficulty == null || this.difficulty == this.targetDifficulty;
+    }
+
+    public int getSolverCalls() {
+        return this.solverCalls;
+    }
+
+    // TIMED_OUT or CANCELLED when a limit ended the removals early, null otherwise
+    // the puzzle is still unique, it just keeps more clues than were asked for
+    public SolveStatus getStopReason() {
+        return this.stopReason;
+    }
+
+    public boolean isComplete() {
+        return this.stopReason == null;
+    }
+
+    GeneratedPuzzle withSolverCalls(int solverCalls) {
+        return new GeneratedPuzzle(this.puzzle, this.solution, this.clues, this.difficulty, this.targetDifficulty, solverCalls,
+                this.stopReason);
+    }
+}
@@ -0,0 +1,185 @@
+package sudoku;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// bulk generation in three stages joined by bounded queues: grid producers fill solved grids,
+// removal workers dig them into unique rated puzzles, and the calling thread hands those to the sink in batches
+// a full queue blocks the stage feeding it, so no stage runs ahead of the slowest one
+public class GenerationPipeline {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    // a worker in the middle of digging only sees the interrupt once its puzzle is done
+    public static final long TERMINATION_TIMEOUT_SECONDS = 30;
+
+    private final int gridProducers;
+    private final int removalWorkers;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final RemovalOrder order;
+    private final SplittableRandom seeds;
+    private final AtomicLong written = new AtomicLong();
+    private volatile long startNanos;
+    // the length of the last run once it has ended, -1 while one is going
+    private volatile long elapsedNanos;
+
+    // filling a grid is far cheaper than digging it, so one producer keeps the other cores busy removing clues
+    public GenerationPipeline() {
+        this(1, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public GenerationPipeline(int gridProducers, int removalWorkers) {
+        this(gridProducers, removalWorkers, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, RemovalOrder.RANDOM, new SplittableRandom());
+    }
+
+    // every stage gets its own split of seeds, the output order still depends on thread timing
+    public GenerationPipeline(int gridProducers, int removalWorkers, int queueCapacity, int batchSize,
+                              RemovalOrder order, SplittableRandom seeds) {
+        if (gridProducers < 1 || removalWorkers < 1) {
+            throw new IllegalArgumentException("Every Stage Needs at Least One Thread!");
+        }
+        if (queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("The Queue Capacity and Batch Size Must Be Positive!");
+        }
+
+        this.gridProducers = gridProducers;
+        this.removalWorkers = removalWorkers;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.order = order;
+        this.seeds = seeds;
+    }
+
+    public GenerationReport generate(long count, int numberOfSquaresToFill, PuzzleSink sink) throws IOException, InterruptedException {
+        return run(count, Math.max(numberOfSquaresToFill, PuzzleGenerator.MINIMUM_CLUES), null, sink);
+    }
+
+    public GenerationReport generate(long count, Difficulty difficulty, PuzzleSink sink) throws IOException, InterruptedException {
+        return run(count, PuzzleGenerator.MINIMUM_CLUES, difficulty, sink);
+    }
+
+    // progress of the current run, for a monitoring thread
+    public long getWrittenCount() {
+        return this.written.get();
+    }
+
+    public double getPuzzlesPerSecond() {
+        long elapsed = this.elapsedNanos;
+        if (elapsed < 0) elapsed = System.nanoTime() - this.startNanos;
+        return elapsed <= 0 ? 0 : this.written.get() * 1e9 / elapsed;
+    }
+
+    private GenerationReport run(long count, int targetClues, Difficulty difficulty, PuzzleSink sink)
+            throws IOException, InterruptedException {
+        if (count < 1) {
+            throw new IllegalArgumentException("The Puzzle Count Must Be Positive!");
+        }
+
+        BlockingQueue<byte[]> grids = new ArrayBlockingQueue<>(this.queueCapacity);
+        BlockingQueue<GeneratedPuzzle> puzzles = new ArrayBlockingQueue<>(this.queueCapacity);
+        // a worker takes a ticket before digging, so exactly count puzzles are made
+        AtomicLong tickets = new AtomicLong();
+        // grids whose puzzle missed the difficulty, bounded so an unreachable target fails instead of spinning
+        AtomicLong missed = new AtomicLong();
+        long maxMissed = count > Long.MAX_VALUE / PuzzleGenerator.MAX_DIFFICULTY_ATTEMPTS
+                ? Long.MAX_VALUE : count * PuzzleGenerator.MAX_DIFFICULTY_ATTEMPTS;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        this.written.set(0);
+        this.elapsedNanos = -1;
+        this.startNanos = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(this.gridProducers + this.removalWorkers);
+        long written = 0;
+        boolean sinkFull = false;
+        boolean stopped;
+        try {
+            for (int i = 0; i < this.gridProducers; ++i) {
+                SplittableRandom random = this.seeds.split();
+                executor.execute(stage(failure, () -> {
+                    while (true) {
+                        grids.put(PuzzleGenerator.createSolution(random));
+                    }
+                }));
+            }
+
+            for (int i = 0; i < this.removalWorkers; ++i) {
+                PuzzleGenerator generator = new PuzzleGenerator(this.order, this.seeds.split());
+                executor.execute(stage(failure, () -> {
+                    while (tickets.getAndIncrement() < count) {
+                        GeneratedPuzzle puzzle = generator.reduce(grids.take(), targetClues, difficulty, SolveLimits.NONE);
+                        while (!puzzle.isOnTarget()) {
+                            if (missed.incrementAndGet() > maxMissed) {
+                                throw new IllegalStateException("Too Few Grids Reach the " + difficulty + " Difficulty!");
+                            }
+                            puzzle = generator.reduce(grids.take(), targetClues, difficulty, SolveLimits.NONE);
+                        }
+                        puzzles.put(puzzle);
+                    }
+                }));
+            }
+
+            List<GeneratedPuzzle> batch = new ArrayList<>(this.batchSize);
+            while (written < count && !sinkFull) {
+                GeneratedPuzzle first = puzzles.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    checkFailure(failure);
+                    continue;
+                }
+
+                batch.add(first);
+                puzzles.drainTo(batch, this.batchSize - 1);
+                for (GeneratedPuzzle puzzle : batch) {
+                    if (written == count) break;
+                    if (!sink.accept(puzzle)) {
+                        sinkFull = true;
+                        break;
+                    }
+                    ++written;
+                }
+                sink.flush();
+                batch.clear();
+                this.written.set(written);
+            }
+        } finally {
+            // the run ends with the writer loop, the wait for workers to stop is not part of its rate
+            this.elapsedNanos = System.nanoTime() - this.startNanos;
+            executor.shutdownNow();
+            stopped = executor.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        checkFailure(failure);
+        if (!stopped) throw new IllegalStateException("The Pipeline Threads Did Not Stop in Time!");
+        return new GenerationReport(written, missed.get(), this.elapsedNanos, sinkFull);
+    }
+
+    private interface Stage {
+        void run() throws InterruptedException;
+    }
+
+    // an interrupt is the normal way a stage ends, anything else is handed to the writer thread
+    private static Runnable stage(AtomicReference<Throwable> failure, Stage stage) {
+        return () -> {
+            try {
+                stage.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        };
+    }
+
+    private static void checkFailure(AtomicReference<Throwable> failure) {
+        Throwable cause = failure.get();
+        if (cause != null) throw new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,44 @@
+package sudoku;
+
+public final class GenerationReport {
+    private final long written;
+    private final long missed;
+    private final long elapsedNanos;
+    private final boolean sinkFull;
+
+    GenerationReport(long written, long missed, long elapsedNanos, boolean sinkFull) {
+        this.written = written;
+        this.missed = missed;
+        this.elapsedNanos = elapsedNanos;
+        this.sinkFull = sinkFull;
+    }
+
+    public long getWrittenCount() {
+        return this.written;
+    }
+
+    // grids that were dug and thrown away because their puzzle missed the difficulty
+    public long getMissedCount() {
+        return this.missed;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    public double getPuzzlesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.written * 1e9 / this.elapsedNanos;
+    }
+
+    // true when the run ended because the sink refused a batch rather than at the target count
+    public boolean isSinkFull() {
+        return this.sinkFull;
+    }
+
+    @Override
+    public String toString() {
+        return this.written + " puzzles in " + this.elapsedNanos / 1_000_000 + "ms ("
+                + Math.round(getPuzzlesPerSecond()) + "/s)" + (this.missed > 0 ? ", " + this.missed + " off target" : "")
+                + (this.sinkFull ? ", sink full" : "");
+    }
+}
@@ -0,0 +1,44 @@
+package sudoku;
+
+public final class Hint {
+    private final Technique technique;
+    private final int row;
+    private final int column;
+    private final int digit;
+    private final int[] cells;
+
+    Hint(Technique technique, int row, int column, int digit, int[] cells) {
+        this.technique = technique;
+        this.row = row;
+        this.column = column;
+        this.digit = digit;
+        this.cells = cells;
+    }
+
+    // the hardest technique the deduction needed
+    public Technique getTechnique() {
+        return this.technique;
+    }
+
+    public int getRow() {
+        return this.row;
+    }
+
+    public int getColumn() {
+        return this.column;
+    }
+
+    public int getDigit() {
+        return this.digit;
+    }
+
+    // the squares the deduction looked at or removed candidates from, as row * 9 + column
+    public int[] getCells() {
+        return this.cells.clone();
+    }
+
+    @Override
+    public String toString() {
+        return this.technique + ": " + this.digit + " at (" + (this.row + 1) + ", " + (this.column + 1) + ")";
+    }
+}
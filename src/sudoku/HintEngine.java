@@ -0,0 +1,51 @@
+package sudoku;
+
+import java.util.Arrays;
+
+// keeps its own scratch state, so use one engine per thread
+public class HintEngine {
+    private final LogicalSolver logic = new LogicalSolver();
+    private final MrvSolver engine = new MrvSolver();
+
+    public Hint nextHint(int[][] board) throws OutOfGridException {
+        return nextHint(PackedBoard.of(board));
+    }
+
+    // the next placement a player can deduce, null when the board is full or cannot be solved
+    public Hint nextHint(PackedBoard board) {
+        LogicalSolver logic = this.logic;
+        if (!logic.load(board.cells()) || logic.isSolved() || logic.isBroken()) return null;
+
+        // eliminations alone cannot be shown on a plain board, so they are chained until a placement follows
+        Technique hardest = Technique.NAKED_SINGLE;
+        while (logic.step()) {
+            if (logic.technique.compareTo(hardest) > 0) hardest = logic.technique;
+            if (logic.isBroken()) return null;
+
+            if (logic.placedCell >= 0) {
+                int cell = logic.placedCell;
+                return new Hint(hardest, cell / 9, cell % 9, logic.placedDigit,
+                        Arrays.copyOf(logic.affected, logic.affectedSize));
+            }
+        }
+
+        return bruteForceHint(board);
+    }
+
+    // reveals the most constrained square from a full search, only when no logical step exists
+    private Hint bruteForceHint(PackedBoard board) {
+        int bestCell = -1, bestCount = 10;
+        for (int cell = 0; cell < SolverEngine.CELLS; ++cell) {
+            if (this.logic.cells[cell] != 0) continue;
+
+            int count = Integer.bitCount(this.logic.candidates[cell]);
+            if (count < bestCount) {
+                bestCell = cell;
+                bestCount = count;
+            }
+        }
+
+        if (!this.engine.load(board.cells()) || !this.engine.solve()) return null;
+        return new Hint(Technique.BRUTE_FORCE, bestCell / 9, bestCell % 9, this.engine.cells[bestCell], new int[] {bestCell});
+    }
+}
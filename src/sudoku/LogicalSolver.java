@@ -0,0 +1,394 @@
+package sudoku;
+
+// pencil-mark solver that only applies logical techniques, one step at a time
+final class LogicalSolver {
+    static final int[][] PEERS = new int[SolverEngine.CELLS][20];
+
+    static {
+        for (int cell = 0; cell < SolverEngine.CELLS; ++cell) {
+            int n = 0;
+            for (int other = 0; other < SolverEngine.CELLS; ++other) {
+                if (other == cell) continue;
+                if (SolverEngine.ROW[other] == SolverEngine.ROW[cell] || SolverEngine.COLUMN[other] == SolverEngine.COLUMN[cell]
+                        || SolverEngine.BOX[other] == SolverEngine.BOX[cell]) {
+                    PEERS[cell][n++] = other;
+                }
+            }
+        }
+    }
+
+    final int[] cells = new int[SolverEngine.CELLS];
+    final int[] candidates = new int[SolverEngine.CELLS];
+    private int empty;
+
+    // what the last step did: the technique, the placement if it made one, and every cell it involved
+    Technique technique;
+    int placedCell;
+    int placedDigit;
+    final int[] affected = new int[SolverEngine.CELLS];
+    int affectedSize;
+    private long lowAffected;
+    private long highAffected;
+
+    // false when two givens clash
+    boolean load(byte[] board) {
+        this.empty = SolverEngine.CELLS;
+        for (int i = 0; i < SolverEngine.CELLS; ++i) {
+            this.cells[i] = 0;
+            this.candidates[i] = SolverEngine.ALL_DIGITS;
+        }
+        clearAffected();
+
+        for (int i = 0; i < SolverEngine.CELLS; ++i) {
+            int digit = board[i];
+            if (digit == 0) continue;
+            if (digit < 0 || digit > 9 || (this.candidates[i] & (1 << (digit - 1))) == 0) return false;
+            assign(i, digit);
+        }
+        return true;
+    }
+
+    boolean isSolved() {
+        return this.empty == 0;
+    }
+
+    // an empty cell without candidates means the board has no solution
+    boolean isBroken() {
+        for (int i = 0; i < SolverEngine.CELLS; ++i) {
+            if (this.cells[i] == 0 && this.candidates[i] == 0) return true;
+        }
+        return false;
+    }
+
+    // applies the cheapest technique that makes progress, false when none does
+    boolean step() {
+        this.placedCell = -1;
+        return nakedSingle() || hiddenSingle() || pointing() || boxLineReduction()
+                || nakedSubset(2, Technique.NAKED_PAIR) || hiddenSubset(2, Technique.HIDDEN_PAIR)
+                || nakedSubset(3, Technique.NAKED_TRIPLE) || hiddenSubset(3, Technique.HIDDEN_TRIPLE)
+                || fish(2, Technique.X_WING) || fish(3, Technique.SWORDFISH);
+    }
+
+    void clearAffected() {
+        this.affectedSize = 0;
+        this.lowAffected = 0;
+        this.highAffected = 0;
+    }
+
+    void assign(int cell, int digit) {
+        int bit = 1 << (digit - 1);
+        this.cells[cell] = digit;
+        this.candidates[cell] = 0;
+        --this.empty;
+        for (int peer : PEERS[cell]) {
+            this.candidates[peer] &= ~bit;
+        }
+    }
+
+    private boolean nakedSingle() {
+        for (int cell = 0; cell < SolverEngine.CELLS; ++cell) {
+            int mask = this.candidates[cell];
+            if (this.cells[cell] != 0 || mask == 0 || (mask & (mask - 1)) != 0) continue;
+
+            mark(cell);
+            return placed(Technique.NAKED_SINGLE, cell, Integer.numberOfTrailingZeros(mask) + 1);
+        }
+        return false;
+    }
+
+    private boolean hiddenSingle() {
+        for (int[] unit : SolverEngine.UNITS) {
+            int once = 0, twice = 0;
+            for (int cell : unit) {
+                twice |= once & this.candidates[cell];
+                once |= this.candidates[cell];
+            }
+
+            int singles = once & ~twice;
+            if (singles == 0) continue;
+
+            int bit = singles & -singles;
+            for (int cell : unit) {
+                if ((this.candidates[cell] & bit) == 0) continue;
+
+                for (int other : unit) {
+                    mark(other);
+                }
+                return placed(Technique.HIDDEN_SINGLE, cell, Integer.numberOfTrailingZeros(bit) + 1);
+            }
+        }
+        return false;
+    }
+
+    // a digit confined to one row or column of a box leaves the rest of that line
+    private boolean pointing() {
+        for (int box = 18; box < 27; ++box) {
+            int[] unit = SolverEngine.UNITS[box];
+            for (int bit = 1; bit <= SolverEngine.ALL_DIGITS; bit <<= 1) {
+                int rows = 0, columns = 0, count = 0;
+                for (int cell : unit) {
+                    if ((this.candidates[cell] & bit) == 0) continue;
+                    rows |= 1 << SolverEngine.ROW[cell];
+                    columns |= 1 << SolverEngine.COLUMN[cell];
+                    ++count;
+                }
+                if (count < 2) continue;
+
+                int line = -1;
+                if (Integer.bitCount(rows) == 1) line = Integer.numberOfTrailingZeros(rows);
+                else if (Integer.bitCount(columns) == 1) line = 9 + Integer.numberOfTrailingZeros(columns);
+                if (line < 0) continue;
+
+                if (eliminateOutside(SolverEngine.UNITS[line], unit, bit)) {
+                    markCandidates(unit, bit);
+                    return eliminated(Technique.POINTING_PAIR);
+                }
+            }
+        }
+        return false;
+    }
+
+    // a digit confined to one box within a row or column leaves the rest of that box
+    private boolean boxLineReduction() {
+        for (int line = 0; line < 18; ++line) {
+            int[] unit = SolverEngine.UNITS[line];
+            for (int bit = 1; bit <= SolverEngine.ALL_DIGITS; bit <<= 1) {
+                int boxes = 0, count = 0;
+                for (int cell : unit) {
+                    if ((this.candidates[cell] & bit) == 0) continue;
+                    boxes |= 1 << SolverEngine.BOX[cell];
+                    ++count;
+                }
+                if (count < 2 || Integer.bitCount(boxes) != 1) continue;
+
+                int box = 18 + Integer.numberOfTrailingZeros(boxes);
+                if (eliminateOutside(SolverEngine.UNITS[box], unit, bit)) {
+                    markCandidates(unit, bit);
+                    return eliminated(Technique.BOX_LINE_REDUCTION);
+                }
+            }
+        }
+        return false;
+    }
+
+    // size cells of a unit sharing exactly size candidates take those digits from the rest of the unit
+    private boolean nakedSubset(int size, Technique technique) {
+        int[] chosen = new int[size];
+        for (int[] unit : SolverEngine.UNITS) {
+            int open = 0;
+            for (int i = 0; i < 9; ++i) {
+                int count = Integer.bitCount(this.candidates[unit[i]]);
+                if (count >= 2 && count <= size) open |= 1 << i;
+            }
+            if (Integer.bitCount(open) < size) continue;
+
+            if (nakedSubset(unit, open, size, 0, 0, 0, chosen)) {
+                for (int i = 0; i < size; ++i) {
+                    mark(unit[chosen[i]]);
+                }
+                return eliminated(technique);
+            }
+        }
+        return false;
+    }
+
+    private boolean nakedSubset(int[] unit, int open, int size, int start, int depth, int digits, int[] chosen) {
+        if (Integer.bitCount(digits) > size) return false;
+        if (depth == size) {
+            if (Integer.bitCount(digits) != size) return false;
+
+            boolean changed = false;
+            for (int i = 0; i < 9; ++i) {
+                if ((this.candidates[unit[i]] & digits) == 0 || isChosen(chosen, size, i)) continue;
+
+                this.candidates[unit[i]] &= ~digits;
+                mark(unit[i]);
+                changed = true;
+            }
+            return changed;
+        }
+
+        for (int i = start; i < 9; ++i) {
+            if ((open & (1 << i)) == 0) continue;
+
+            chosen[depth] = i;
+            if (nakedSubset(unit, open, size, i + 1, depth + 1, digits | this.candidates[unit[i]], chosen)) return true;
+        }
+        return false;
+    }
+
+    // size digits confined to the same size cells of a unit clear every other candidate from those cells
+    private boolean hiddenSubset(int size, Technique technique) {
+        int[] positions = new int[9];
+        for (int[] unit : SolverEngine.UNITS) {
+            int open = 0;
+            for (int d = 0; d < 9; ++d) {
+                positions[d] = 0;
+                for (int i = 0; i < 9; ++i) {
+                    if ((this.candidates[unit[i]] & (1 << d)) != 0) positions[d] |= 1 << i;
+                }
+
+                int count = Integer.bitCount(positions[d]);
+                if (count >= 2 && count <= size) open |= 1 << d;
+            }
+            if (Integer.bitCount(open) < size) continue;
+
+            if (hiddenSubset(unit, positions, open, size, 0, 0, 0, 0)) return eliminated(technique);
+        }
+        return false;
+    }
+
+    private boolean hiddenSubset(int[] unit, int[] positions, int open, int size, int start, int depth,
+                                 int cells, int digits) {
+        if (Integer.bitCount(cells) > size) return false;
+        if (depth == size) {
+            if (Integer.bitCount(cells) != size) return false;
+
+            boolean changed = false;
+            for (int i = 0; i < 9; ++i) {
+                if ((cells & (1 << i)) == 0) continue;
+
+                int cell = unit[i];
+                if ((this.candidates[cell] & ~digits) != 0) {
+                    this.candidates[cell] &= digits;
+                    changed = true;
+                }
+            }
+
+            if (changed) {
+                for (int i = 0; i < 9; ++i) {
+                    if ((cells & (1 << i)) != 0) mark(unit[i]);
+                }
+            }
+            return changed;
+        }
+
+        for (int d = start; d < 9; ++d) {
+            if ((open & (1 << d)) == 0) continue;
+
+            if (hiddenSubset(unit, positions, open, size, d + 1, depth + 1, cells | positions[d], digits | (1 << d))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // a digit confined to the same size columns in size rows leaves those columns elsewhere, and the other way round
+    private boolean fish(int size, Technique technique) {
+        int[] lines = new int[9];
+        for (int bit = 1; bit <= SolverEngine.ALL_DIGITS; bit <<= 1) {
+            for (int base = 0; base <= 9; base += 9) {
+                int open = 0;
+                for (int line = 0; line < 9; ++line) {
+                    lines[line] = 0;
+                    for (int i = 0; i < 9; ++i) {
+                        if ((this.candidates[SolverEngine.UNITS[base + line][i]] & bit) != 0) lines[line] |= 1 << i;
+                    }
+
+                    int count = Integer.bitCount(lines[line]);
+                    if (count >= 2 && count <= size) open |= 1 << line;
+                }
+                if (Integer.bitCount(open) < size) continue;
+
+                if (fish(base, lines, open, bit, size, 0, 0, 0, 0)) return eliminated(technique);
+            }
+        }
+        return false;
+    }
+
+    private boolean fish(int base, int[] lines, int open, int bit, int size, int start, int depth, int chosenLines, int crossLines) {
+        if (Integer.bitCount(crossLines) > size) return false;
+        if (depth == size) {
+            if (Integer.bitCount(crossLines) != size) return false;
+
+            // rows as base lines cross columns, columns cross rows
+            int crossBase = base == 0 ? 9 : 0;
+            boolean changed = false;
+            for (int cross = 0; cross < 9; ++cross) {
+                if ((crossLines & (1 << cross)) == 0) continue;
+
+                int[] unit = SolverEngine.UNITS[crossBase + cross];
+                for (int i = 0; i < 9; ++i) {
+                    if ((chosenLines & (1 << i)) != 0 || (this.candidates[unit[i]] & bit) == 0) continue;
+
+                    this.candidates[unit[i]] &= ~bit;
+                    mark(unit[i]);
+                    changed = true;
+                }
+            }
+
+            if (changed) {
+                for (int line = 0; line < 9; ++line) {
+                    if ((chosenLines & (1 << line)) != 0) markCandidates(SolverEngine.UNITS[base + line], bit);
+                }
+            }
+            return changed;
+        }
+
+        for (int line = start; line < 9; ++line) {
+            if ((open & (1 << line)) == 0) continue;
+
+            if (fish(base, lines, open, bit, size, line + 1, depth + 1, chosenLines | (1 << line), crossLines | lines[line])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isChosen(int[] chosen, int size, int index) {
+        for (int i = 0; i < size; ++i) {
+            if (chosen[i] == index) return true;
+        }
+        return false;
+    }
+
+    // removes the digits from the cells of target that are not in keep
+    private boolean eliminateOutside(int[] target, int[] keep, int digits) {
+        boolean changed = false;
+        for (int cell : target) {
+            if ((this.candidates[cell] & digits) == 0 || contains(keep, cell)) continue;
+
+            this.candidates[cell] &= ~digits;
+            mark(cell);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static boolean contains(int[] unit, int cell) {
+        for (int member : unit) {
+            if (member == cell) return true;
+        }
+        return false;
+    }
+
+    private void markCandidates(int[] unit, int digits) {
+        for (int cell : unit) {
+            if ((this.candidates[cell] & digits) != 0) mark(cell);
+        }
+    }
+
+    void mark(int cell) {
+        if (cell < 64) {
+            if ((this.lowAffected & (1L << cell)) != 0) return;
+            this.lowAffected |= 1L << cell;
+        } else {
+            if ((this.highAffected & (1L << (cell - 64))) != 0) return;
+            this.highAffected |= 1L << (cell - 64);
+        }
+        this.affected[this.affectedSize++] = cell;
+    }
+
+    private boolean placed(Technique technique, int cell, int digit) {
+        this.technique = technique;
+        this.placedCell = cell;
+        this.placedDigit = digit;
+        assign(cell, digit);
+        return true;
+    }
+
+    private boolean eliminated(Technique technique) {
+        this.technique = technique;
+        return true;
+    }
+}
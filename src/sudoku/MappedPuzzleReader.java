@@ -0,0 +1,150 @@
+package sudoku;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+// maps a one-puzzle-per-line file and decodes line-aligned chunks of it in parallel
+public class MappedPuzzleReader {
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    private final Path path;
+    private final ForkJoinPool pool;
+
+    public MappedPuzzleReader(Path path) {
+        this(path, ForkJoinPool.commonPool());
+    }
+
+    public MappedPuzzleReader(Path path, ForkJoinPool pool) {
+        this.path = path;
+        this.pool = pool;
+    }
+
+    // the boards keep the order of the file
+    public List<PackedBoard> readAll() throws IOException {
+        List<PackedBoard> boards = new ArrayList<>();
+        for (List<PackedBoard> chunk : decodeChunks(null)) {
+            boards.addAll(chunk);
+        }
+        return boards;
+    }
+
+    // the consumer is called from several threads at once and in no particular order
+    public void forEach(Consumer<PackedBoard> consumer) throws IOException {
+        decodeChunks(consumer);
+    }
+
+    private List<List<PackedBoard>> decodeChunks(Consumer<PackedBoard> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+
+            List<ForkJoinTask<List<PackedBoard>>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; ++i) {
+                if (bounds[i] == bounds[i + 1]) continue;
+
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]);
+                long offset = bounds[i];
+                tasks.add(this.pool.submit(() -> decode(chunk, offset, consumer)));
+            }
+
+            List<List<PackedBoard>> chunks = new ArrayList<>(tasks.size());
+            for (ForkJoinTask<List<PackedBoard>> task : tasks) {
+                try {
+                    chunks.add(task.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                    throw new IOException(e.getCause());
+                }
+            }
+            return chunks;
+        }
+    }
+
+    // every chunk starts right after a line break, so no line is split between two chunks
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunks = (int) Math.max(this.pool.getParallelism(), (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        long chunkSize = Math.max(1, (size + chunks - 1) / chunks);
+
+        long[] bounds = new long[chunks + 1];
+        ByteBuffer probe = ByteBuffer.allocate(256);
+        for (int i = 1; i < chunks; ++i) {
+            long position = Math.max(bounds[i - 1], Math.min(size, i * chunkSize));
+            bounds[i] = nextLineStart(channel, probe, position, size);
+        }
+        bounds[chunks] = size;
+
+        return bounds;
+    }
+
+    private static long nextLineStart(FileChannel channel, ByteBuffer probe, long position, long size) throws IOException {
+        if (position == 0) return 0;
+
+        // looking from the byte before, in case the position already starts a line
+        long current = position - 1;
+        while (current < size) {
+            probe.clear();
+            int read = channel.read(probe, current);
+            if (read <= 0) break;
+
+            for (int i = 0; i < read; ++i) {
+                if (probe.get(i) == '\n') return current + i + 1;
+            }
+            current += read;
+        }
+        return size;
+    }
+
+    private static List<PackedBoard> decode(MappedByteBuffer chunk, long offset, Consumer<PackedBoard> consumer) {
+        List<PackedBoard> boards = consumer == null ? new ArrayList<>(chunk.limit() / (PackedBoard.CELLS + 1)) : null;
+        int limit = chunk.limit();
+        int position = 0;
+
+        while (position < limit) {
+            int b = chunk.get(position);
+            if (b == '\n' || b == '\r' || b == ' ' || b == '\t') {
+                ++position;
+                continue;
+            }
+
+            if (limit - position < PackedBoard.CELLS) throw malformed(offset + position);
+
+            byte[] cells = new byte[PackedBoard.CELLS];
+            for (int i = 0; i < PackedBoard.CELLS; ++i) {
+                int digit = PuzzleReader.decodeCell(chunk.get(position + i));
+                if (digit < 0) throw malformed(offset + position);
+                cells[i] = (byte) digit;
+            }
+            position += PackedBoard.CELLS;
+
+            while (position < limit && chunk.get(position) != '\n') {
+                ++position;
+            }
+
+            PackedBoard board = new PackedBoard(cells);
+            if (consumer == null) {
+                boards.add(board);
+            } else {
+                consumer.accept(board);
+            }
+        }
+
+        return boards;
+    }
+
+    private static NumberFormatException malformed(long offset) {
+        return new NumberFormatException("The Line at Byte " + offset + " Is Not an 81-Character Puzzle!");
+    }
+}
@@ -0,0 +1,162 @@
+package sudoku;
+
+final class MrvSolver extends SolverEngine {
+    // cells placed during the search, so a failed branch can be rolled back
+    private final int[] trail = new int[CELLS];
+    private int trailSize;
+
+    @Override
+    boolean solve() {
+        this.trailSize = 0;
+        return search(0);
+    }
+
+    @Override
+    int countSolutions(int limit) {
+        if (limit <= 0) return 0;
+        this.trailSize = 0;
+        return count(0, limit);
+    }
+
+    private boolean search(int depth) {
+        if (isStopped()) return false;
+        visit(depth);
+
+        int mark = this.trailSize;
+        if (!propagate()) {
+            undo(mark);
+            return false;
+        }
+
+        int bestCell = selectCell();
+        if (bestCell == -1) return true;
+
+        int branchMark = this.trailSize;
+        int candidates = candidates(bestCell);
+        while (candidates != 0) {
+            int bit = candidates & -candidates;
+            candidates ^= bit;
+
+            ++this.guesses;
+            assign(bestCell, Integer.numberOfTrailingZeros(bit) + 1);
+            if (search(depth + 1)) return true;
+            undo(branchMark);
+            ++this.backtracks;
+        }
+
+        undo(mark);
+        return false;
+    }
+
+    private int count(int depth, int limit) {
+        if (isStopped()) return 0;
+        visit(depth);
+
+        int mark = this.trailSize;
+        if (!propagate()) {
+            undo(mark);
+            return 0;
+        }
+
+        int bestCell = selectCell();
+        if (bestCell == -1) {
+            undo(mark);
+            return 1;
+        }
+
+        int found = 0;
+        int candidates = candidates(bestCell);
+        while (candidates != 0 && found < limit) {
+            int bit = candidates & -candidates;
+            candidates ^= bit;
+
+            ++this.guesses;
+            int branchMark = this.trailSize;
+            assign(bestCell, Integer.numberOfTrailingZeros(bit) + 1);
+            found += count(depth + 1, limit - found);
+            undo(branchMark);
+            ++this.backtracks;
+        }
+
+        undo(mark);
+        return found;
+    }
+
+    private int selectCell() {
+        int bestCell = -1, bestCount = 10;
+        for (int cell = 0; cell < CELLS; ++cell) {
+            if (this.cells[cell] != 0) continue;
+
+            int count = Integer.bitCount(candidates(cell));
+            if (count < bestCount) {
+                bestCell = cell;
+                bestCount = count;
+                if (count == 2) break;
+            }
+        }
+        return bestCell;
+    }
+
+    // applies naked and hidden singles until nothing changes, false on a contradiction
+    private boolean propagate() {
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+
+            for (int cell = 0; cell < CELLS; ++cell) {
+                if (this.cells[cell] != 0) continue;
+
+                int candidates = candidates(cell);
+                if (candidates == 0) return false;
+                if ((candidates & (candidates - 1)) == 0) {
+                    assign(cell, Integer.numberOfTrailingZeros(candidates) + 1);
+                    ++this.forcedPlacements;
+                    progress = true;
+                }
+            }
+
+            for (int[] unit : this.fullUnits) {
+                int placed = 0, once = 0, twice = 0;
+                for (int cell : unit) {
+                    if (this.cells[cell] != 0) {
+                        placed |= 1 << (this.cells[cell] - 1);
+                        continue;
+                    }
+                    int candidates = candidates(cell);
+                    twice |= once & candidates;
+                    once |= candidates;
+                }
+
+                if ((once | placed) != ALL_DIGITS) return false;
+
+                int singles = once & ~twice & ~placed;
+                if (singles == 0) continue;
+
+                for (int cell : unit) {
+                    if (this.cells[cell] != 0) continue;
+
+                    int hidden = candidates(cell) & singles;
+                    if (hidden == 0) continue;
+                    if ((hidden & (hidden - 1)) != 0) return false;
+
+                    assign(cell, Integer.numberOfTrailingZeros(hidden) + 1);
+                    ++this.forcedPlacements;
+                    progress = true;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private void assign(int cell, int digit) {
+        place(cell, digit);
+        this.trail[this.trailSize++] = cell;
+    }
+
+    private void undo(int mark) {
+        while (this.trailSize > mark) {
+            remove(this.trail[--this.trailSize]);
+        }
+    }
+}
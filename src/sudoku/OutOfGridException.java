@@ -4,4 +4,8 @@ public class OutOfGridException extends Exception {
     public OutOfGridException() {
         super("You Passed a Puzzle that is Not 9*9 Numbers!");
     }
+
+    public OutOfGridException(int size) {
+        super("You Passed a Puzzle that is Not " + size + "*" + size + " Numbers!");
+    }
 }
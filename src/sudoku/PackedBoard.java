@@ -0,0 +1,119 @@
+package sudoku;
+
+import java.util.Arrays;
+
+// one byte per cell in row-major order, 0 for an empty square
+public final class PackedBoard {
+    public static final int CELLS = 81;
+
+    private final byte[] cells;
+
+    public PackedBoard() {
+        this.cells = new byte[CELLS];
+    }
+
+    PackedBoard(byte[] cells) {
+        this.cells = cells;
+    }
+
+    public static PackedBoard of(int[][] board) throws OutOfGridException {
+        if (board.length != Sudoku.GRID_SIZE) throw new OutOfGridException();
+
+        byte[] cells = new byte[CELLS];
+        for (int i = 0; i < Sudoku.GRID_SIZE; ++i) {
+            if (board[i].length != Sudoku.GRID_SIZE) throw new OutOfGridException();
+            for (int j = 0; j < Sudoku.GRID_SIZE; ++j) {
+                cells[i * 9 + j] = toCell(board[i][j]);
+            }
+        }
+
+        return new PackedBoard(cells);
+    }
+
+    public static PackedBoard of(byte[] cells) throws OutOfGridException {
+        if (cells.length != CELLS) throw new OutOfGridException();
+
+        byte[] copy = cells.clone();
+        for (byte cell : copy) {
+            toCell(cell);
+        }
+        return new PackedBoard(copy);
+    }
+
+    public int get(int row, int column) {
+        return this.cells[row * 9 + column];
+    }
+
+    public int get(int index) {
+        return this.cells[index];
+    }
+
+    public void set(int row, int column, int digit) {
+        this.cells[row * 9 + column] = toCell(digit);
+    }
+
+    public void set(int index, int digit) {
+        this.cells[index] = toCell(digit);
+    }
+
+    public int clueCount() {
+        int count = 0;
+        for (byte cell : this.cells) {
+            if (cell != 0) ++count;
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        for (byte cell : this.cells) {
+            if (cell != 0) return false;
+        }
+        return true;
+    }
+
+    public int[][] toArray() {
+        int[][] board = new int[Sudoku.GRID_SIZE][Sudoku.GRID_SIZE];
+        for (int i = 0; i < CELLS; ++i) {
+            board[i / 9][i % 9] = this.cells[i];
+        }
+        return board;
+    }
+
+    public byte[] toBytes() {
+        return this.cells.clone();
+    }
+
+    public PackedBoard copy() {
+        return new PackedBoard(this.cells.clone());
+    }
+
+    byte[] cells() {
+        return this.cells;
+    }
+
+    private static byte toCell(int digit) {
+        if (digit < 0 || digit > 9) throw new NumberFormatException("Not a Sudoku Digit: " + digit);
+        return (byte) digit;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof PackedBoard)) return false;
+        return Arrays.equals(this.cells, ((PackedBoard) other).cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.cells);
+    }
+
+    @Override
+    public String toString() {
+        char[] line = new char[CELLS];
+        for (int i = 0; i < CELLS; ++i) {
+            line[i] = (char) ('0' + this.cells[i]);
+        }
+        return new String(line);
+    }
+}
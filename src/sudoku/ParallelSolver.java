@@ -0,0 +1,216 @@
+package sudoku;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelSolver {
+    public static final int DEFAULT_SPLIT_DEPTH = 3;
+    // shared by every instance, so each pool thread builds one engine however many solvers are created
+    // an engine is only used inside a leaf task, which never joins, so tasks on one thread cannot interleave on it
+    private static final ThreadLocal<MrvSolver> ENGINES = ThreadLocal.withInitial(MrvSolver::new);
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    public ParallelSolver() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    // the first splitDepth branching levels are forked, deeper levels run sequentially
+    public ParallelSolver(ForkJoinPool pool, int splitDepth) {
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    public int[][] solve(int[][] game) throws OutOfGridException {
+        int[] cells = loadRoot(game);
+        if (cells == null) return null;
+
+        int[] solved = this.pool.invoke(new SolveTask(cells, 0, new CancellationToken()));
+        if (solved == null) return null;
+
+        int[][] solution = new int[Sudoku.GRID_SIZE][Sudoku.GRID_SIZE];
+        for (int i = 0; i < SolverEngine.CELLS; ++i) {
+            solution[i / 9][i % 9] = solved[i];
+        }
+        return solution;
+    }
+
+    // branch counts are summed, every branch stops once the shared total reaches the limit
+    public int countSolutions(int[][] game, int limit) throws OutOfGridException {
+        int[] cells = loadRoot(game);
+        if (cells == null || limit <= 0) return 0;
+
+        CountTask root = new CountTask(cells, 0, limit, new AtomicInteger(), new CancellationToken());
+        this.pool.invoke(root);
+        return Math.min(root.total.get(), limit);
+    }
+
+    private int[] loadRoot(int[][] game) throws OutOfGridException {
+        if (game.length != 9) throw new OutOfGridException();
+        for (int[] row : game) {
+            if (row.length != 9) throw new OutOfGridException();
+        }
+
+        MrvSolver engine = ENGINES.get();
+        if (!engine.load(game)) return null;
+        return engine.cells.clone();
+    }
+
+    // returns the cell to branch on, -1 when the grid is full and -2 on a dead end
+    private static int selectCell(int[] cells) {
+        int[] masks = new int[27];
+        for (int i = 0; i < SolverEngine.CELLS; ++i) {
+            if (cells[i] == 0) continue;
+
+            int bit = 1 << (cells[i] - 1);
+            masks[SolverEngine.ROW[i]] |= bit;
+            masks[9 + SolverEngine.COLUMN[i]] |= bit;
+            masks[18 + SolverEngine.BOX[i]] |= bit;
+        }
+
+        int bestCell = -1, bestCount = 10, bestCandidates = 0;
+        for (int i = 0; i < SolverEngine.CELLS; ++i) {
+            if (cells[i] != 0) continue;
+
+            int candidates = ~(masks[SolverEngine.ROW[i]] | masks[9 + SolverEngine.COLUMN[i]]
+                    | masks[18 + SolverEngine.BOX[i]]) & SolverEngine.ALL_DIGITS;
+            int count = Integer.bitCount(candidates);
+            if (count == 0) return -2;
+            if (count < bestCount) {
+                bestCell = i;
+                bestCount = count;
+                bestCandidates = candidates;
+            }
+        }
+
+        return bestCell < 0 ? bestCell : bestCell | bestCandidates << 8;
+    }
+
+    private static int[] branch(int[] cells, int cell, int digit) {
+        int[] child = cells.clone();
+        child[cell] = digit;
+        return child;
+    }
+
+    @SuppressWarnings("serial")
+    private final class SolveTask extends RecursiveTask<int[]> {
+        private final int[] cells;
+        private final int depth;
+        private final CancellationToken found;
+
+        SolveTask(int[] cells, int depth, CancellationToken found) {
+            this.cells = cells;
+            this.depth = depth;
+            this.found = found;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (this.found.isCancelled()) return null;
+
+            if (this.depth >= ParallelSolver.this.splitDepth) {
+                MrvSolver engine = ENGINES.get();
+                engine.limit(this.found, Long.MAX_VALUE, SolverEngine.NO_DEADLINE);
+                try {
+                    if (!engine.load(this.cells) || !engine.solve()) return null;
+                } finally {
+                    engine.unlimit();
+                }
+
+                this.found.cancel();
+                return engine.cells.clone();
+            }
+
+            int selected = selectCell(this.cells);
+            if (selected == -2) return null;
+            if (selected == -1) {
+                this.found.cancel();
+                return this.cells;
+            }
+
+            int cell = selected & 0xFF, candidates = selected >>> 8;
+            SolveTask[] children = new SolveTask[Integer.bitCount(candidates)];
+            for (int i = 0; candidates != 0; ++i) {
+                int bit = candidates & -candidates;
+                candidates ^= bit;
+
+                int[] child = branch(this.cells, cell, Integer.numberOfTrailingZeros(bit) + 1);
+                children[i] = new SolveTask(child, this.depth + 1, this.found);
+                children[i].fork();
+            }
+
+            int[] solution = null;
+            for (SolveTask child : children) {
+                int[] result = child.join();
+                if (solution == null) solution = result;
+            }
+            return solution;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class CountTask extends RecursiveTask<Void> {
+        private final int[] cells;
+        private final int depth;
+        private final int limit;
+        private final AtomicInteger total;
+        private final CancellationToken reached;
+
+        CountTask(int[] cells, int depth, int limit, AtomicInteger total, CancellationToken reached) {
+            this.cells = cells;
+            this.depth = depth;
+            this.limit = limit;
+            this.total = total;
+            this.reached = reached;
+        }
+
+        @Override
+        protected Void compute() {
+            if (this.reached.isCancelled()) return null;
+
+            if (this.depth >= ParallelSolver.this.splitDepth) {
+                MrvSolver engine = ENGINES.get();
+                engine.limit(this.reached, Long.MAX_VALUE, SolverEngine.NO_DEADLINE);
+                try {
+                    if (engine.load(this.cells)) {
+                        add(engine.countSolutions(this.limit - this.total.get()));
+                    }
+                } finally {
+                    engine.unlimit();
+                }
+                return null;
+            }
+
+            int selected = selectCell(this.cells);
+            if (selected == -2) return null;
+            if (selected == -1) {
+                add(1);
+                return null;
+            }
+
+            int cell = selected & 0xFF, candidates = selected >>> 8;
+            CountTask[] children = new CountTask[Integer.bitCount(candidates)];
+            for (int i = 0; candidates != 0; ++i) {
+                int bit = candidates & -candidates;
+                candidates ^= bit;
+
+                int[] child = branch(this.cells, cell, Integer.numberOfTrailingZeros(bit) + 1);
+                children[i] = new CountTask(child, this.depth + 1, this.limit, this.total, this.reached);
+                children[i].fork();
+            }
+
+            for (CountTask child : children) {
+                child.join();
+            }
+            return null;
+        }
+
+        private void add(int solutions) {
+            if (solutions > 0 && this.total.addAndGet(solutions) >= this.limit) {
+                this.reached.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package sudoku;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// keeps its own solver scratch state, so use one generator per thread
+public class PuzzleGenerator {
+    public static final int MINIMUM_CLUES = 17;
+    public static final int MAX_DIFFICULTY_ATTEMPTS = 512;
+
+    private final RemovalOrder order;
+    private final MrvSolver engine = new MrvSolver();
+    private final DifficultyRater rater = new DifficultyRater();
+    private final RandomGenerator random;
+    private int solverCalls;
+    private long deadline;
+    private long nodesLeft;
+
+    public PuzzleGenerator(RemovalOrder order) {
+        this(order, new SplittableRandom());
+    }
+
+    // a seeded generator makes every puzzle reproducible from its seed
+    public PuzzleGenerator(RemovalOrder order, RandomGenerator random) {
+        this.order = order;
+        this.random = random;
+    }
+
+    public GeneratedPuzzle generate(int numberOfSquaresToFill) {
+        return generate(numberOfSquaresToFill, SolveLimits.NONE);
+    }
+
+    public GeneratedPuzzle generate(Difficulty difficulty) {
+        return generate(difficulty, SolveLimits.NONE);
+    }
+
+    // the limits cover every uniqueness check of the call, with the node budget shared between them
+    public GeneratedPuzzle generate(int numberOfSquaresToFill, SolveLimits limits) {
+        return generate(Math.max(numberOfSquaresToFill, MINIMUM_CLUES), null, limits);
+    }
+
+    public GeneratedPuzzle generate(Difficulty difficulty, SolveLimits limits) {
+        return generate(MINIMUM_CLUES, difficulty, limits);
+    }
+
+    // a difficulty target digs fresh grids until one lands on it, up to MAX_DIFFICULTY_ATTEMPTS of them
+    // when none does, the hardest puzzle below the target comes back with isOnTarget() false
+    private GeneratedPuzzle generate(int targetClues, Difficulty targetDifficulty, SolveLimits limits) {
+        start(limits);
+        GeneratedPuzzle best = null;
+        for (int attempt = 0; attempt < MAX_DIFFICULTY_ATTEMPTS; ++attempt) {
+            GeneratedPuzzle puzzle = dig(createSolution(this.random), targetClues, targetDifficulty, limits.getToken());
+            if (puzzle.isOnTarget() || !puzzle.isComplete()) return puzzle;
+            if (best == null || puzzle.getDifficulty().compareTo(best.getDifficulty()) > 0) best = puzzle;
+        }
+        return best.withSolverCalls(this.solverCalls);
+    }
+
+    static byte[] createSolution(RandomGenerator random) {
+        byte[] solution = new byte[SolverEngine.CELLS];
+        int[][] solvedBoard = Sudoku.createSolvedBoard(random);
+        for (int i = 0; i < SolverEngine.CELLS; ++i) {
+            solution[i] = (byte) solvedBoard[i / 9][i % 9];
+        }
+        return solution;
+    }
+
+    // digs clues out of a full grid that was made elsewhere, such as by the pipeline's grid producers
+    GeneratedPuzzle reduce(byte[] solution, int targetClues, Difficulty targetDifficulty, SolveLimits limits) {
+        start(limits);
+        return dig(solution, targetClues, targetDifficulty, limits.getToken());
+    }
+
+    // the deadline and node budget are shared by every grid dug until the next start
+    private void start(SolveLimits limits) {
+        this.solverCalls = 0;
+        this.deadline = limits.deadline(System.nanoTime());
+        this.nodesLeft = limits.getNodeBudget();
+    }
+
+    private GeneratedPuzzle dig(byte[] solution, int targetClues, Difficulty targetDifficulty, CancellationToken token) {
+        SolveStatus stopReason = null;
+        byte[] puzzle = solution.clone();
+
+        int clues = SolverEngine.CELLS;
+        Difficulty difficulty = Difficulty.EASY;
+        for (int cell : removalSequence()) {
+            int mirror = this.order == RemovalOrder.SYMMETRIC ? SolverEngine.CELLS - 1 - cell : cell;
+            if (mirror < cell) continue;
+
+            int removed = mirror == cell ? 1 : 2;
+            if (clues - removed < targetClues) continue;
+
+            puzzle[cell] = 0;
+            puzzle[mirror] = 0;
+
+            Difficulty rating = null;
+            this.engine.limit(token, this.nodesLeft, this.deadline);
+            boolean keep;
+            try {
+                keep = isUnique(puzzle);
+            } finally {
+                this.engine.unlimit();
+            }
+            if (this.nodesLeft != Long.MAX_VALUE) this.nodesLeft -= this.engine.nodes;
+
+            // an unfinished check proves nothing, so the square goes back and the puzzle stays as it was
+            stopReason = this.engine.stopReason;
+            if (stopReason != null) {
+                puzzle[cell] = solution[cell];
+                puzzle[mirror] = solution[mirror];
+                break;
+            }
+
+            // a removal is backed out when it breaks uniqueness or overshoots the difficulty,
+            // and once the target is reached it is also backed out when it falls below it again
+            if (keep && targetDifficulty != null) {
+                rating = rate(puzzle);
+                keep = difficulty == targetDifficulty ? rating == targetDifficulty : rating.compareTo(targetDifficulty) <= 0;
+            }
+            if (!keep) {
+                puzzle[cell] = solution[cell];
+                puzzle[mirror] = solution[mirror];
+                continue;
+            }
+
+            clues -= removed;
+            if (rating != null) difficulty = rating;
+            if (clues == targetClues) break;
+        }
+
+        if (targetDifficulty == null || stopReason != null) difficulty = rate(puzzle);
+
+        return new GeneratedPuzzle(new PackedBoard(puzzle), new PackedBoard(solution), clues, difficulty, targetDifficulty,
+                this.solverCalls, stopReason);
+    }
+
+    private int[] removalSequence() {
+        int[] sequence = new int[SolverEngine.CELLS];
+        for (int i = 0; i < sequence.length; ++i) {
+            sequence[i] = i;
+        }
+        if (this.order == RemovalOrder.ROW_MAJOR) return sequence;
+
+        for (int i = sequence.length - 1; i > 0; --i) {
+            int j = this.random.nextInt(i + 1);
+            int swap = sequence[i];
+            sequence[i] = sequence[j];
+            sequence[j] = swap;
+        }
+        return sequence;
+    }
+
+    private boolean isUnique(byte[] puzzle) {
+        ++this.solverCalls;
+        return this.engine.load(puzzle) && this.engine.countSolutions(2) == 1;
+    }
+
+    private Difficulty rate(byte[] puzzle) {
+        Rating rating = this.rater.rate(puzzle);
+        return rating == null ? Difficulty.EXPERT : rating.getDifficulty();
+    }
+}
@@ -0,0 +1,60 @@
+package sudoku;
+
+import java.util.Arrays;
+
+// a board packed into six longs of 4-bit cells, usable as a hash key
+public final class PuzzleKey {
+    static final int WORDS = 6;
+
+    private final long[] words;
+    private final int hash;
+
+    private PuzzleKey(long[] words) {
+        this.words = words;
+        this.hash = Arrays.hashCode(words);
+    }
+
+    public static PuzzleKey of(PackedBoard board) {
+        long[] words = new long[WORDS];
+        pack(board.cells(), words);
+        return new PuzzleKey(words);
+    }
+
+    // null when the board holds something other than the digits 0 to 9
+    public static PuzzleKey of(int[][] board) {
+        long[] words = new long[WORDS];
+        for (int i = 0; i < Sudoku.GRID_SIZE; ++i) {
+            for (int j = 0; j < Sudoku.GRID_SIZE; ++j) {
+                int digit = board[i][j];
+                if (digit < 0 || digit > 9) return null;
+
+                int cell = i * 9 + j;
+                words[cell >> 4] |= (long) digit << ((cell & 15) << 2);
+            }
+        }
+        return new PuzzleKey(words);
+    }
+
+    static void pack(byte[] cells, long[] words) {
+        for (int i = 0; i < WORDS; ++i) {
+            words[i] = 0;
+        }
+        for (int i = 0; i < PackedBoard.CELLS; ++i) {
+            words[i >> 4] |= (long) cells[i] << ((i & 15) << 2);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof PuzzleKey)) return false;
+
+        PuzzleKey key = (PuzzleKey) other;
+        return this.hash == key.hash && Arrays.equals(this.words, key.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+}
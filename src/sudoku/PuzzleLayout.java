@@ -0,0 +1,8 @@
+package sudoku;
+
+public enum PuzzleLayout {
+    // the spaced 9-line block written by Sudoku.saveToFile
+    PRETTY,
+    // one 81-character line per puzzle
+    COMPACT
+}
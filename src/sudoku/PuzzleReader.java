@@ -0,0 +1,128 @@
+package sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// reads one puzzle per line: 81 cells of 1-9, with 0 or . for blanks, anything after them is ignored
+// a line that does not start with 81 puzzle characters, a byte order mark included, is a NumberFormatException
+public class PuzzleReader implements Iterator<PackedBoard>, Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream input;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long lineNumber;
+    private PackedBoard next;
+
+    public PuzzleReader(InputStream input) {
+        this.input = input;
+    }
+
+    public static PuzzleReader open(Path path) throws IOException {
+        return new PuzzleReader(Files.newInputStream(path));
+    }
+
+    // fills the given board without allocating, false at the end of the input
+    public boolean readInto(PackedBoard board) throws IOException {
+        return readLine(board.cells());
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next != null) return true;
+
+        byte[] cells = new byte[PackedBoard.CELLS];
+        try {
+            if (!readLine(cells)) return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.next = new PackedBoard(cells);
+        return true;
+    }
+
+    @Override
+    public PackedBoard next() {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        PackedBoard board = this.next;
+        this.next = null;
+        return board;
+    }
+
+    public Stream<PackedBoard> stream() {
+        Spliterator<PackedBoard> spliterator = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.input.close();
+    }
+
+    private boolean readLine(byte[] cells) throws IOException {
+        int b;
+        // skipping blank lines
+        do {
+            b = read();
+            if (b == '\n') ++this.lineNumber;
+        } while (b == '\n' || b == '\r' || b == ' ' || b == '\t');
+        if (b < 0) return false;
+
+        ++this.lineNumber;
+        int count = 0;
+        while (count < PackedBoard.CELLS) {
+            int digit = decodeCell(b);
+            if (digit < 0) {
+                throw new NumberFormatException("Line " + this.lineNumber + " Is Not an 81-Character Puzzle!");
+            }
+            cells[count++] = (byte) digit;
+
+            if (count < PackedBoard.CELLS) b = read();
+        }
+
+        while (b >= 0 && b != '\n') {
+            b = read();
+        }
+        return true;
+    }
+
+    // the digit of one puzzle character, -1 when it is not part of a puzzle
+    static int decodeCell(int b) {
+        if (b >= '1' && b <= '9') return b - '0';
+        if (b == '0' || b == '.') return 0;
+        return -1;
+    }
+
+    private int read() throws IOException {
+        if (this.position == this.limit) {
+            this.limit = this.input.read(this.buffer, 0, BUFFER_SIZE);
+            this.position = 0;
+            if (this.limit <= 0) {
+                this.limit = 0;
+                return -1;
+            }
+        }
+        // masked, so bytes of 0x80 and above are not mistaken for the end of the input
+        return this.buffer[this.position++] & 0xFF;
+    }
+}
@@ -0,0 +1,38 @@
+package sudoku;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+
+// where a GenerationPipeline delivers finished puzzles, always from one thread
+public interface PuzzleSink {
+    // false when the sink is full and did not take the puzzle, which stops the pipeline
+    boolean accept(GeneratedPuzzle puzzle) throws IOException;
+
+    // called after every batch
+    default void flush() throws IOException {
+    }
+
+    static PuzzleSink of(PuzzleWriter writer, boolean withSolutions) {
+        return new PuzzleSink() {
+            @Override
+            public boolean accept(GeneratedPuzzle puzzle) throws IOException {
+                if (withSolutions) {
+                    writer.write(puzzle.getPackedPuzzle(), puzzle.getPackedSolution());
+                } else {
+                    writer.write(puzzle.getPackedPuzzle());
+                }
+                return true;
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    // full once the queue is
+    static PuzzleSink of(BlockingQueue<GeneratedPuzzle> queue) {
+        return queue::offer;
+    }
+}
@@ -0,0 +1,144 @@
+package sudoku;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// writes many puzzles, optionally with their solutions, through one reusable byte buffer
+public class PuzzleWriter implements Closeable, Flushable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    // the pretty layout ends its lines the way BufferedWriter.newLine() did in saveToFile
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final int PRETTY_BLOCK_SIZE = 9 * 24 + 12 * LINE_SEPARATOR.length;
+
+    private final OutputStream output;
+    private final PuzzleLayout layout;
+    private final byte blank;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final byte[] scratch = new byte[PackedBoard.CELLS];
+    private int position;
+
+    public PuzzleWriter(OutputStream output) {
+        this(output, PuzzleLayout.COMPACT, '.');
+    }
+
+    public PuzzleWriter(OutputStream output, char blank) {
+        this(output, PuzzleLayout.COMPACT, blank);
+    }
+
+    // the pretty layout always writes blanks as 0 so Sudoku can read the blocks back
+    public PuzzleWriter(OutputStream output, PuzzleLayout layout, char blank) {
+        this.output = output;
+        this.layout = layout;
+        this.blank = layout == PuzzleLayout.PRETTY ? (byte) '0' : (byte) blank;
+    }
+
+    public static PuzzleWriter open(Path path) throws IOException {
+        return new PuzzleWriter(Files.newOutputStream(path));
+    }
+
+    public static PuzzleWriter open(Path path, PuzzleLayout layout, boolean append) throws IOException {
+        OutputStream output = append
+                ? Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                : Files.newOutputStream(path);
+        return new PuzzleWriter(output, layout, '.');
+    }
+
+    public void write(PackedBoard board) throws IOException {
+        writeBoard(board.cells());
+        if (this.layout == PuzzleLayout.COMPACT) put('\n');
+    }
+
+    // compact lines hold the puzzle and its solution separated by a comma
+    public void write(PackedBoard puzzle, PackedBoard solution) throws IOException {
+        writeBoard(puzzle.cells());
+        if (this.layout == PuzzleLayout.COMPACT) put(',');
+        writeBoard(solution.cells());
+        if (this.layout == PuzzleLayout.COMPACT) put('\n');
+    }
+
+    public void write(int[][] game) throws IOException {
+        for (int i = 0; i < Sudoku.GRID_SIZE; ++i) {
+            for (int j = 0; j < Sudoku.GRID_SIZE; ++j) {
+                int digit = game[i][j];
+                if (digit < 0 || digit > 9) throw new NumberFormatException("Not a Sudoku Digit: " + digit);
+                this.scratch[i * 9 + j] = (byte) digit;
+            }
+        }
+
+        writeBoard(this.scratch);
+        if (this.layout == PuzzleLayout.COMPACT) put('\n');
+    }
+
+    public void writeAll(Iterable<PackedBoard> boards) throws IOException {
+        for (PackedBoard board : boards) {
+            write(board);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        this.output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            this.output.close();
+        }
+    }
+
+    private void writeBoard(byte[] cells) throws IOException {
+        if (this.layout == PuzzleLayout.COMPACT) {
+            ensure(PackedBoard.CELLS + 2);
+            for (int i = 0; i < PackedBoard.CELLS; ++i) {
+                this.buffer[this.position++] = cells[i] == 0 ? this.blank : (byte) ('0' + cells[i]);
+            }
+            return;
+        }
+
+        ensure(PRETTY_BLOCK_SIZE);
+        for (int i = 0; i < Sudoku.GRID_SIZE; ++i) {
+            for (int j = 0; j < Sudoku.GRID_SIZE; ++j) {
+                this.buffer[this.position++] = (byte) ('0' + cells[i * 9 + j]);
+                this.buffer[this.position++] = ' ';
+                if ((j+1) % 3 == 0) {
+                    this.buffer[this.position++] = ' ';
+                    this.buffer[this.position++] = ' ';
+                }
+            }
+            newLine();
+            if ((i+1) % 3 == 0) newLine();
+        }
+    }
+
+    private void newLine() {
+        for (byte b : LINE_SEPARATOR) {
+            this.buffer[this.position++] = b;
+        }
+    }
+
+    private void put(char b) throws IOException {
+        ensure(1);
+        this.buffer[this.position++] = (byte) b;
+    }
+
+    private void ensure(int size) throws IOException {
+        if (BUFFER_SIZE - this.position < size) flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (this.position == 0) return;
+
+        this.output.write(this.buffer, 0, this.position);
+        this.position = 0;
+    }
+}
@@ -0,0 +1,42 @@
+package sudoku;
+
+public final class Rating {
+    private final Technique hardest;
+    private final int score;
+    private final int steps;
+    private final boolean solvedLogically;
+
+    Rating(Technique hardest, int score, int steps, boolean solvedLogically) {
+        this.hardest = hardest;
+        this.score = score;
+        this.steps = steps;
+        this.solvedLogically = solvedLogically;
+    }
+
+    // the hardest technique a player needs, BRUTE_FORCE when logic alone gets stuck
+    public Technique getHardestTechnique() {
+        return this.hardest;
+    }
+
+    // the weights of every step added up, so two puzzles of the same level can still be compared
+    public int getScore() {
+        return this.score;
+    }
+
+    public int getSteps() {
+        return this.steps;
+    }
+
+    public boolean isSolvedLogically() {
+        return this.solvedLogically;
+    }
+
+    public Difficulty getDifficulty() {
+        return this.hardest.getDifficulty();
+    }
+
+    @Override
+    public String toString() {
+        return getDifficulty() + " (" + this.hardest + ", score " + this.score + ")";
+    }
+}
@@ -0,0 +1,7 @@
+package sudoku;
+
+public enum RemovalOrder {
+    RANDOM,
+    SYMMETRIC,
+    ROW_MAJOR
+}
@@ -0,0 +1,122 @@
+package sudoku;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// a size-bounded LRU map from puzzles to solutions, split into independently locked segments
+// the segments share the maximum size between them, so the cache never holds more than it, but each one
+// evicts its own least recently used entry, so a full cache can drop an entry that is newer than one kept elsewhere
+// entries are keyed by the puzzle alone: every strategy finds the same solution for a proper puzzle, and a puzzle
+// with several solutions gets back whichever one was cached first, whatever strategy asks for it
+public class SolutionCache {
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SolutionCache(int maximumSize) {
+        if (maximumSize < 1) throw new IllegalArgumentException("The Cache Must Hold at Least One Solution!");
+
+        // a power of two no larger than the maximum, so every segment holds at least one solution
+        int segments = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumSize));
+        this.segments = new Segment[segments];
+        this.segmentMask = segments - 1;
+        for (int i = 0; i < segments; ++i) {
+            this.segments[i] = new Segment(maximumSize / segments + (i < maximumSize % segments ? 1 : 0));
+        }
+    }
+
+    public PackedBoard get(PackedBoard puzzle) {
+        byte[] solution = get(PuzzleKey.of(puzzle));
+        return solution == null ? null : new PackedBoard(solution.clone());
+    }
+
+    public void put(PackedBoard puzzle, PackedBoard solution) {
+        put(PuzzleKey.of(puzzle), solution.toBytes());
+    }
+
+    byte[] get(PuzzleKey key) {
+        Segment segment = segment(key);
+        byte[] solution;
+        synchronized (segment) {
+            solution = segment.get(key);
+        }
+
+        if (solution == null) {
+            this.misses.increment();
+        } else {
+            this.hits.increment();
+        }
+        return solution;
+    }
+
+    // the cache keeps the array, so callers must not change it afterwards
+    void put(PuzzleKey key, byte[] solution) {
+        Segment segment = segment(key);
+        synchronized (segment) {
+            segment.put(key, solution);
+        }
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hits = getHits(), requests = hits + getMisses();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private Segment segment(PuzzleKey key) {
+        int hash = key.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & this.segmentMask];
+    }
+
+    @SuppressWarnings("serial")
+    private final class Segment extends LinkedHashMap<PuzzleKey, byte[]> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PuzzleKey, byte[]> eldest) {
+            if (size() <= this.capacity) return false;
+
+            SolutionCache.this.evictions.increment();
+            return true;
+        }
+    }
+}
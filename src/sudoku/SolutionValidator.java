@@ -0,0 +1,92 @@
+package sudoku;
+
+import java.util.BitSet;
+import java.util.List;
+
+// checks rows, columns and boxes in one pass over the grid, keeping every mask in locals
+public final class SolutionValidator {
+    // both boards are packed into per-thread scratch arrays, so the check stays allocation-free
+    private static final ThreadLocal<byte[][]> SCRATCH = ThreadLocal.withInitial(() -> new byte[2][PackedBoard.CELLS]);
+
+    private SolutionValidator() {
+    }
+
+    // the solution must be a complete valid grid that keeps every given of the puzzle
+    public static boolean isValid(int[][] puzzle, int[][] solution) {
+        byte[][] scratch = SCRATCH.get();
+        return pack(puzzle, scratch[0]) && pack(solution, scratch[1]) && isValid(scratch[0], scratch[1]);
+    }
+
+    public static boolean isValid(PackedBoard puzzle, PackedBoard solution) {
+        return isValid(puzzle.cells(), solution.cells());
+    }
+
+    public static boolean isValidSolution(PackedBoard solution) {
+        return isValid(null, solution.cells());
+    }
+
+    // the returned set has bit i on when solutions[i] solves puzzles[i]
+    public static BitSet validateAll(List<PackedBoard> puzzles, List<PackedBoard> solutions) {
+        if (puzzles.size() != solutions.size()) {
+            throw new IllegalArgumentException("Every Puzzle Needs Exactly One Solution!");
+        }
+
+        BitSet valid = new BitSet(puzzles.size());
+        for (int i = 0; i < puzzles.size(); ++i) {
+            if (isValid(puzzles.get(i), solutions.get(i))) valid.set(i);
+        }
+        return valid;
+    }
+
+    static boolean isValid(byte[] puzzle, byte[] solution) {
+        long lowColumns = 0, highColumns = 0;
+        int boxes = 0;
+        for (int r = 0; r < Sudoku.GRID_SIZE; ++r) {
+            if (r % 3 == 0) boxes = 0;
+
+            int row = 0;
+            for (int c = 0; c < Sudoku.GRID_SIZE; ++c) {
+                int cell = r * 9 + c, digit = solution[cell];
+                if (digit < 1 || digit > 9) return false;
+                if (puzzle != null && puzzle[cell] != 0 && puzzle[cell] != digit) return false;
+
+                int bit = 1 << (digit - 1);
+                if ((row & bit) != 0) return false;
+                row |= bit;
+
+                int box = bit << ((c / 3) * 9);
+                if ((boxes & box) != 0) return false;
+                boxes |= box;
+
+                if (c < 5) {
+                    long column = (long) bit << (c * 9);
+                    if ((lowColumns & column) != 0) return false;
+                    lowColumns |= column;
+                } else {
+                    long column = (long) bit << ((c - 5) * 9);
+                    if ((highColumns & column) != 0) return false;
+                    highColumns |= column;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    // false when the board is not 9 by 9 or holds something other than the digits 0 to 9
+    private static boolean pack(int[][] board, byte[] cells) {
+        if (board.length != Sudoku.GRID_SIZE) return false;
+
+        for (int r = 0; r < Sudoku.GRID_SIZE; ++r) {
+            int[] row = board[r];
+            if (row.length != Sudoku.GRID_SIZE) return false;
+
+            for (int c = 0; c < Sudoku.GRID_SIZE; ++c) {
+                int digit = row[c];
+                if (digit < 0 || digit > 9) return false;
+                cells[r * 9 + c] = (byte) digit;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package sudoku;
+
+import java.time.Duration;
+
+// bounds for one solve or generation call; the clock starts when the call does
+public final class SolveLimits {
+    public static final SolveLimits NONE = new SolveLimits(null, Long.MAX_VALUE, null);
+    private static final Duration LONGEST_TIMEOUT = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final Duration timeout;
+    private final long nodeBudget;
+    private final CancellationToken token;
+
+    private SolveLimits(Duration timeout, long nodeBudget, CancellationToken token) {
+        if (timeout != null && timeout.isNegative()) {
+            throw new IllegalArgumentException("The Timeout Cannot Be Negative!");
+        }
+        if (nodeBudget <= 0) {
+            throw new IllegalArgumentException("The Node Budget Must Be Positive!");
+        }
+
+        this.timeout = timeout;
+        this.nodeBudget = nodeBudget;
+        this.token = token;
+    }
+
+    public static SolveLimits of(Duration timeout, long nodeBudget, CancellationToken token) {
+        return new SolveLimits(timeout, nodeBudget, token);
+    }
+
+    public static SolveLimits timeout(Duration timeout) {
+        return NONE.withTimeout(timeout);
+    }
+
+    public static SolveLimits nodeBudget(long nodeBudget) {
+        return NONE.withNodeBudget(nodeBudget);
+    }
+
+    public static SolveLimits token(CancellationToken token) {
+        return NONE.withToken(token);
+    }
+
+    public SolveLimits withTimeout(Duration timeout) {
+        return new SolveLimits(timeout, this.nodeBudget, this.token);
+    }
+
+    public SolveLimits withNodeBudget(long nodeBudget) {
+        return new SolveLimits(this.timeout, nodeBudget, this.token);
+    }
+
+    public SolveLimits withToken(CancellationToken token) {
+        return new SolveLimits(this.timeout, this.nodeBudget, token);
+    }
+
+    // null when there is no time limit
+    public Duration getTimeout() {
+        return this.timeout;
+    }
+
+    // search nodes the whole call may visit, Long.MAX_VALUE when unbounded
+    public long getNodeBudget() {
+        return this.nodeBudget;
+    }
+
+    public CancellationToken getToken() {
+        return this.token;
+    }
+
+    // the System.nanoTime() value at which a call started at start runs out of time;
+    // a timeout too long to reach saturates to no deadline instead of overflowing
+    long deadline(long start) {
+        if (this.timeout == null || this.timeout.compareTo(LONGEST_TIMEOUT) > 0) return SolverEngine.NO_DEADLINE;
+
+        long nanos = this.timeout.toNanos();
+        if (start > 0 && nanos > Long.MAX_VALUE - start) return SolverEngine.NO_DEADLINE;
+
+        // a real deadline that lands on the marker is moved a nanosecond earlier, so it is still enforced
+        long deadline = start + nanos;
+        return deadline == SolverEngine.NO_DEADLINE ? deadline - 1 : deadline;
+    }
+}
@@ -0,0 +1,39 @@
+package sudoku;
+
+public final class SolveResult {
+    private final SolveStatus status;
+    private final PackedBoard solution;
+    private final SolveStatistics statistics;
+
+    SolveResult(SolveStatus status, PackedBoard solution, SolveStatistics statistics) {
+        this.status = status;
+        this.solution = solution;
+        this.statistics = statistics;
+    }
+
+    public SolveStatus getStatus() {
+        return this.status;
+    }
+
+    public boolean isSolved() {
+        return this.status == SolveStatus.SOLVED;
+    }
+
+    // null unless the puzzle was solved
+    public int[][] getSolution() {
+        return this.solution == null ? null : this.solution.toArray();
+    }
+
+    public PackedBoard getPackedSolution() {
+        return this.solution;
+    }
+
+    public SolveStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    @Override
+    public String toString() {
+        return this.status + " (" + this.statistics + ")";
+    }
+}
@@ -0,0 +1,54 @@
+package sudoku;
+
+public final class SolveStatistics {
+    private final long nodes;
+    private final long backtracks;
+    private final long guesses;
+    private final long forcedPlacements;
+    private final int maxDepth;
+    private final long wallTimeNanos;
+
+    SolveStatistics(SolverEngine engine, long wallTimeNanos) {
+        this.nodes = engine.nodes;
+        this.backtracks = engine.backtracks;
+        this.guesses = engine.guesses;
+        this.forcedPlacements = engine.forcedPlacements;
+        this.maxDepth = engine.maxDepth;
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    // search calls, including the ones that hit a contradiction straight away
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    // placements that were taken back because they led nowhere
+    public long getBacktracks() {
+        return this.backtracks;
+    }
+
+    // placements picked among several candidates
+    public long getGuesses() {
+        return this.guesses;
+    }
+
+    // placements that had no alternative
+    public long getForcedPlacements() {
+        return this.forcedPlacements;
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    public long getWallTimeNanos() {
+        return this.wallTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "nodes=" + this.nodes + ", backtracks=" + this.backtracks + ", guesses=" + this.guesses
+                + ", forced=" + this.forcedPlacements + ", maxDepth=" + this.maxDepth
+                + ", time=" + this.wallTimeNanos / 1000 + "us";
+    }
+}
@@ -0,0 +1,9 @@
+package sudoku;
+
+public enum SolveStatus {
+    SOLVED,
+    UNSOLVABLE,
+    // the deadline passed or the node budget ran out before the search finished
+    TIMED_OUT,
+    CANCELLED
+}
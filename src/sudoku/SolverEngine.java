@@ -0,0 +1,297 @@
+package sudoku;
+
+import java.util.Arrays;
+import java.util.List;
+
+abstract class SolverEngine {
+    static final int CELLS = 81;
+    static final int ALL_DIGITS = 0x1FF;
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+    // the token and the clock are read once per this many nodes, a power of two
+    static final int CHECK_INTERVAL = 1024;
+    static final int[] ROW = new int[CELLS];
+    static final int[] COLUMN = new int[CELLS];
+    static final int[] BOX = new int[CELLS];
+    // rows first, then columns, then boxes
+    static final int[][] UNITS = new int[27][9];
+
+    static {
+        for (int i = 0; i < CELLS; ++i) {
+            ROW[i] = i / 9;
+            COLUMN[i] = i % 9;
+            BOX[i] = (i / 27) * 3 + (i % 9) / 3;
+        }
+
+        int[] filled = new int[27];
+        for (int i = 0; i < CELLS; ++i) {
+            UNITS[ROW[i]][filled[ROW[i]]++] = i;
+            UNITS[9 + COLUMN[i]][filled[9 + COLUMN[i]]++] = i;
+            UNITS[18 + BOX[i]][filled[18 + BOX[i]]++] = i;
+        }
+    }
+
+    final int[] cells = new int[CELLS];
+    final int[] rowMasks = new int[9];
+    final int[] columnMasks = new int[9];
+    int[] boxMasks = new int[9];
+    // the rules, classic until configure swaps in a variant's: the box or jigsaw region of each cell,
+    // the nine-square units hidden singles look at, and for extra units and killer cages, null when there are none
+    int[] regionOf = BOX;
+    int[][] fullUnits = UNITS;
+    int[][] extraUnitsOf;
+    int[] extraMasks;
+    int[][] cagesOf;
+    int[][] cageCombinations;
+    int[] cagePlaced;
+    int[] cageAllowed;
+    // limits set by callers around a search: shared tokens also let several engines on one search stop together
+    CancellationToken token;
+    long nodeBudget = Long.MAX_VALUE;
+    long deadline = NO_DEADLINE;
+    // why the last search stopped early, null when it ran to the end
+    SolveStatus stopReason;
+    // statistics of the last search, plain fields so counting costs next to nothing; load resets them
+    long nodes;
+    long backtracks;
+    long guesses;
+    long forcedPlacements;
+    int maxDepth;
+
+    // switches to the rules of a variant for good, the rows and columns always stay
+    void configure(ConstraintModel model) {
+        int[] regions = model.regionOf();
+        if (regions != null) {
+            this.regionOf = regions.clone();
+        } else {
+            // without regions every cell gets a mask slot of its own, which never rules anything out
+            this.regionOf = new int[CELLS];
+            this.boxMasks = new int[9 + CELLS];
+            for (int i = 0; i < CELLS; ++i) {
+                this.regionOf[i] = 9 + i;
+            }
+        }
+
+        List<int[]> units = model.units();
+        this.fullUnits = units.stream().filter(unit -> unit.length == 9).toArray(int[][]::new);
+
+        List<int[]> extras = model.extraUnits();
+        List<int[]> cages = model.cageCells();
+        if (extras.isEmpty() && cages.isEmpty()) return;
+
+        this.extraUnitsOf = membership(extras);
+        this.extraMasks = new int[extras.size()];
+        this.cagesOf = membership(cages);
+        this.cageCombinations = new int[cages.size()][];
+        for (int i = 0; i < cages.size(); ++i) {
+            this.cageCombinations[i] = combinations(cages.get(i).length, model.cageSums().get(i));
+        }
+        this.cagePlaced = new int[cages.size()];
+        this.cageAllowed = new int[cages.size()];
+        clear();
+    }
+
+    // for every cell, the indices of the groups it belongs to
+    private static int[][] membership(List<int[]> groups) {
+        int[] counts = new int[CELLS];
+        for (int[] group : groups) {
+            for (int cell : group) ++counts[cell];
+        }
+
+        int[][] of = new int[CELLS][];
+        for (int i = 0; i < CELLS; ++i) {
+            of[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int g = 0; g < groups.size(); ++g) {
+            for (int cell : groups.get(g)) of[cell][counts[cell]++] = g;
+        }
+        return of;
+    }
+
+    // every set of size different digits that adds up to sum, as digit masks
+    static int[] combinations(int size, int sum) {
+        int count = 0;
+        int[] found = new int[ALL_DIGITS + 1];
+        for (int mask = 1; mask <= ALL_DIGITS; ++mask) {
+            if (Integer.bitCount(mask) != size) continue;
+
+            int total = 0;
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                total += Integer.numberOfTrailingZeros(bits) + 1;
+            }
+            if (total == sum) found[count++] = mask;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    static SolverEngine create(SolverStrategy strategy) {
+        switch (strategy) {
+            case BITMASK:
+                return new BitmaskSolver();
+            case MINIMUM_REMAINING_VALUES:
+                return new MrvSolver();
+            case DANCING_LINKS:
+                return new DancingLinksSolver();
+            default:
+                throw new IllegalArgumentException("No Engine for the Strategy: " + strategy);
+        }
+    }
+
+    // returns false when the board holds an invalid digit or two givens clash
+    boolean load(int[][] board) {
+        clear();
+        for (int r = 0; r < 9; ++r) {
+            for (int c = 0; c < 9; ++c) {
+                if (!loadCell(r * 9 + c, board[r][c])) return false;
+            }
+        }
+        return true;
+    }
+
+    boolean load(int[] board) {
+        clear();
+        for (int i = 0; i < CELLS; ++i) {
+            if (!loadCell(i, board[i])) return false;
+        }
+        return true;
+    }
+
+    boolean load(byte[] board) {
+        clear();
+        for (int i = 0; i < CELLS; ++i) {
+            if (!loadCell(i, board[i])) return false;
+        }
+        return true;
+    }
+
+    final boolean loadCell(int cell, int digit) {
+        if (digit == 0) return true;
+        if (digit < 0 || digit > 9) return false;
+        if ((candidates(cell) & (1 << (digit - 1))) == 0) return false;
+        place(cell, digit);
+        return true;
+    }
+
+    void store(int[][] board) {
+        for (int r = 0; r < 9; ++r) {
+            for (int c = 0; c < 9; ++c) {
+                board[r][c] = this.cells[r * 9 + c];
+            }
+        }
+    }
+
+    void store(byte[] board) {
+        for (int i = 0; i < CELLS; ++i) {
+            board[i] = (byte) this.cells[i];
+        }
+    }
+
+    void clear() {
+        this.nodes = 0;
+        this.backtracks = 0;
+        this.guesses = 0;
+        this.forcedPlacements = 0;
+        this.maxDepth = 0;
+        this.stopReason = null;
+        for (int i = 0; i < CELLS; ++i) this.cells[i] = 0;
+        for (int i = 0; i < 9; ++i) {
+            this.rowMasks[i] = 0;
+            this.columnMasks[i] = 0;
+        }
+        for (int i = 0; i < this.boxMasks.length; ++i) this.boxMasks[i] = 0;
+        if (this.extraUnitsOf == null) return;
+
+        for (int i = 0; i < this.extraMasks.length; ++i) this.extraMasks[i] = 0;
+        for (int i = 0; i < this.cagePlaced.length; ++i) {
+            this.cagePlaced[i] = 0;
+            this.cageAllowed[i] = allowed(i);
+        }
+    }
+
+    void limit(CancellationToken token, long nodeBudget, long deadline) {
+        this.token = token;
+        this.nodeBudget = nodeBudget;
+        this.deadline = deadline;
+    }
+
+    void unlimit() {
+        limit(null, Long.MAX_VALUE, NO_DEADLINE);
+    }
+
+    // called once per node: a field test and a compare, the volatile token and the clock only every CHECK_INTERVAL nodes
+    final boolean isStopped() {
+        if (this.stopReason != null) return true;
+        if (this.nodes >= this.nodeBudget) {
+            this.stopReason = SolveStatus.TIMED_OUT;
+            return true;
+        }
+        if ((this.nodes & (CHECK_INTERVAL - 1)) != 0) return false;
+
+        if (this.token != null && this.token.isCancelled()) {
+            this.stopReason = SolveStatus.CANCELLED;
+        } else if (this.deadline != NO_DEADLINE && System.nanoTime() - this.deadline >= 0) {
+            this.stopReason = SolveStatus.TIMED_OUT;
+        }
+        return this.stopReason != null;
+    }
+
+    final int candidates(int cell) {
+        int used = this.rowMasks[ROW[cell]] | this.columnMasks[COLUMN[cell]] | this.boxMasks[this.regionOf[cell]];
+        if (this.extraUnitsOf == null) return ~used & ALL_DIGITS;
+
+        for (int unit : this.extraUnitsOf[cell]) used |= this.extraMasks[unit];
+        int candidates = ~used & ALL_DIGITS;
+        for (int cage : this.cagesOf[cell]) candidates &= this.cageAllowed[cage];
+        return candidates;
+    }
+
+    // counts a search node at the given depth of guesses
+    final void visit(int depth) {
+        ++this.nodes;
+        if (depth > this.maxDepth) this.maxDepth = depth;
+    }
+
+    final void place(int cell, int digit) {
+        int bit = 1 << (digit - 1);
+        this.cells[cell] = digit;
+        this.rowMasks[ROW[cell]] |= bit;
+        this.columnMasks[COLUMN[cell]] |= bit;
+        this.boxMasks[this.regionOf[cell]] |= bit;
+        if (this.extraUnitsOf == null) return;
+
+        for (int unit : this.extraUnitsOf[cell]) this.extraMasks[unit] |= bit;
+        for (int cage : this.cagesOf[cell]) {
+            this.cagePlaced[cage] |= bit;
+            this.cageAllowed[cage] = allowed(cage);
+        }
+    }
+
+    final void remove(int cell) {
+        int bit = ~(1 << (this.cells[cell] - 1));
+        this.cells[cell] = 0;
+        this.rowMasks[ROW[cell]] &= bit;
+        this.columnMasks[COLUMN[cell]] &= bit;
+        this.boxMasks[this.regionOf[cell]] &= bit;
+        if (this.extraUnitsOf == null) return;
+
+        for (int unit : this.extraUnitsOf[cell]) this.extraMasks[unit] &= bit;
+        for (int cage : this.cagesOf[cell]) {
+            this.cagePlaced[cage] &= bit;
+            this.cageAllowed[cage] = allowed(cage);
+        }
+    }
+
+    // the digits still open to a cage: those of every sum combination that holds the digits already placed
+    private int allowed(int cage) {
+        int placed = this.cagePlaced[cage], allowed = 0;
+        for (int combination : this.cageCombinations[cage]) {
+            if ((combination & placed) == placed) allowed |= combination;
+        }
+        return allowed & ~placed;
+    }
+
+    abstract boolean solve();
+
+    // stops as soon as limit solutions are found, the cells are left in an unspecified state
+    abstract int countSolutions(int limit);
+}
@@ -0,0 +1,154 @@
+package sudoku;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// totals over many solves, safe to share between the threads of a batch
+public class SolverMetrics implements SolverMetricsMBean {
+    private final LongAdder[] statusCounts = new LongAdder[SolveStatus.values().length];
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final LongAdder guesses = new LongAdder();
+    private final LongAdder forcedPlacements = new LongAdder();
+    private final LongAdder wallTimeNanos = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator slowestNanos = new LongAccumulator(Long::max, 0);
+
+    public SolverMetrics() {
+        for (int i = 0; i < this.statusCounts.length; ++i) {
+            this.statusCounts[i] = new LongAdder();
+        }
+    }
+
+    public void record(SolveResult result) {
+        SolveStatistics statistics = result.getStatistics();
+        record(result.getStatus(), statistics.getNodes(), statistics.getBacktracks(), statistics.getGuesses(),
+                statistics.getForcedPlacements(), statistics.getMaxDepth(), statistics.getWallTimeNanos());
+    }
+
+    // straight from the engine's counters, so the batch paths record without allocating
+    void record(SolverEngine engine, SolveStatus status, long wallTimeNanos) {
+        record(status, engine.nodes, engine.backtracks, engine.guesses, engine.forcedPlacements, engine.maxDepth, wallTimeNanos);
+    }
+
+    private void record(SolveStatus status, long nodes, long backtracks, long guesses, long forcedPlacements,
+                        int maxDepth, long wallTimeNanos) {
+        this.statusCounts[status.ordinal()].increment();
+        this.nodes.add(nodes);
+        this.backtracks.add(backtracks);
+        this.guesses.add(guesses);
+        this.forcedPlacements.add(forcedPlacements);
+        this.wallTimeNanos.add(wallTimeNanos);
+        this.maxDepth.accumulate(maxDepth);
+        this.slowestNanos.accumulate(wallTimeNanos);
+    }
+
+    public long getCount(SolveStatus status) {
+        return this.statusCounts[status.ordinal()].sum();
+    }
+
+    @Override
+    public long getSolveCount() {
+        long total = 0;
+        for (LongAdder count : this.statusCounts) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getSolvedCount() {
+        return getCount(SolveStatus.SOLVED);
+    }
+
+    @Override
+    public long getUnsolvableCount() {
+        return getCount(SolveStatus.UNSOLVABLE);
+    }
+
+    @Override
+    public long getTimedOutCount() {
+        return getCount(SolveStatus.TIMED_OUT);
+    }
+
+    @Override
+    public long getCancelledCount() {
+        return getCount(SolveStatus.CANCELLED);
+    }
+
+    @Override
+    public long getNodeCount() {
+        return this.nodes.sum();
+    }
+
+    @Override
+    public long getBacktrackCount() {
+        return this.backtracks.sum();
+    }
+
+    @Override
+    public long getGuessCount() {
+        return this.guesses.sum();
+    }
+
+    @Override
+    public long getForcedPlacementCount() {
+        return this.forcedPlacements.sum();
+    }
+
+    @Override
+    public int getMaxDepth() {
+        return (int) this.maxDepth.get();
+    }
+
+    @Override
+    public long getTotalWallTimeNanos() {
+        return this.wallTimeNanos.sum();
+    }
+
+    @Override
+    public long getSlowestWallTimeNanos() {
+        return this.slowestNanos.get();
+    }
+
+    @Override
+    public double getAverageWallTimeMicros() {
+        long solves = getSolveCount();
+        return solves == 0 ? 0 : getTotalWallTimeNanos() / 1000.0 / solves;
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder count : this.statusCounts) {
+            count.reset();
+        }
+        this.nodes.reset();
+        this.backtracks.reset();
+        this.guesses.reset();
+        this.forcedPlacements.reset();
+        this.wallTimeNanos.reset();
+        this.maxDepth.reset();
+        this.slowestNanos.reset();
+    }
+
+    // shows the metrics in JConsole or any JMX client as sudoku:type=SolverMetrics,name=<name>
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("sudoku:type=SolverMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    public void unregister(ObjectName objectName) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+
+    @Override
+    public String toString() {
+        return "solves=" + getSolveCount() + ", solved=" + getSolvedCount() + ", nodes=" + getNodeCount()
+                + ", backtracks=" + getBacktrackCount() + ", maxDepth=" + getMaxDepth()
+                + ", avg=" + getAverageWallTimeMicros() + "us";
+    }
+}
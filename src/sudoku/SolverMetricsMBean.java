@@ -0,0 +1,32 @@
+package sudoku;
+
+// what SolverMetrics shows over JMX
+public interface SolverMetricsMBean {
+    long getSolveCount();
+
+    long getSolvedCount();
+
+    long getUnsolvableCount();
+
+    long getTimedOutCount();
+
+    long getCancelledCount();
+
+    long getNodeCount();
+
+    long getBacktrackCount();
+
+    long getGuessCount();
+
+    long getForcedPlacementCount();
+
+    int getMaxDepth();
+
+    long getTotalWallTimeNanos();
+
+    long getSlowestWallTimeNanos();
+
+    double getAverageWallTimeMicros();
+
+    void reset();
+}
@@ -0,0 +1,8 @@
+package sudoku;
+
+public enum SolverStrategy {
+    BACKTRACKING,
+    BITMASK,
+    MINIMUM_REMAINING_VALUES,
+    DANCING_LINKS
+}
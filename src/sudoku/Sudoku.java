@@ -1,15 +1,27 @@
 package sudoku;
 
 import java.io.*;
-import java.security.SecureRandom;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.random.RandomGenerator;
 
 public class Sudoku {
     private String filePath;
     private final int[][] board;
     private int[][] solvedBoard;
     private boolean isSolveMethodCalled = false;
+    private SolverStrategy solverStrategy = DEFAULT_STRATEGY;
     public static final int GRID_SIZE = 9;
+    public static final int BOX_SIZE = 3;
+    private static final ThreadLocal<SolverEngine[]> ENGINES =
+            ThreadLocal.withInitial(() -> new SolverEngine[SolverStrategy.values().length]);
+    public static final SolverStrategy DEFAULT_STRATEGY = SolverStrategy.MINIMUM_REMAINING_VALUES;
+    private static volatile SolutionCache solutionCache;
+    private static volatile SolverMetrics solverMetrics;
 
     public Sudoku(int[][] board) throws OutOfGridException, EmptyPuzzleException {
         if (board.length != 9) {
@@ -76,10 +88,36 @@ public class Sudoku {
         }
     }
 
+    // shared by every static and instance solve, null turns caching off
+    public static void setSolutionCache(SolutionCache cache) {
+        solutionCache = cache;
+    }
+
+    public static SolutionCache getSolutionCache() {
+        return solutionCache;
+    }
+
+    // every engine solve adds its statistics to these metrics, null (the default) skips the timing altogether
+    public static void setSolverMetrics(SolverMetrics metrics) {
+        solverMetrics = metrics;
+    }
+
+    public static SolverMetrics getSolverMetrics() {
+        return solverMetrics;
+    }
+
     public int[][] getBoard() {
         return this.board;
     }
 
+    public SolverStrategy getSolverStrategy() {
+        return this.solverStrategy;
+    }
+
+    public void setSolverStrategy(SolverStrategy solverStrategy) {
+        this.solverStrategy = solverStrategy;
+    }
+
     public int[][] getSolvedBoard() {
         if (isSolveMethodCalled) {
             return this.solvedBoard;
@@ -119,33 +157,31 @@ public class Sudoku {
         return sudokuBoard;
     }
 
-    private String[] getPuzzleFromFile() throws IOException {
+    private String[] getPuzzleFromFile() throws IOException, OutOfGridException {
         String[] puzzle = new String[9];
         String buffer;
 
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader(this.filePath));
+        try (BufferedReader reader = new BufferedReader(new FileReader(this.filePath))) {
             int i = 0;
             while ((buffer = reader.readLine()) != null) {
                 if (buffer.isBlank()) continue;
+                if (i == GRID_SIZE) throw new OutOfGridException();
                 puzzle[i++] = buffer;
             }
-            reader.close();
-        } catch (IOException e) {
-            throw e;
         }
 
         return puzzle;
     }
 
+    // bulk counterpart of the file constructor for one-puzzle-per-line files
+    public static List<PackedBoard> readPuzzles(String filePath) throws IOException {
+        return new MappedPuzzleReader(Path.of(filePath)).readAll();
+    }
+
     public boolean solve() {
         this.solvedBoard = new int[GRID_SIZE][GRID_SIZE];
 
-        for (int i = 0; i < GRID_SIZE; ++i) {
-            this.solvedBoard[i] = Arrays.copyOf(this.board[i], this.board[i].length);
-        }
-
-        if (solver(this.solvedBoard, 0, 0)) {
+        if (solveInto(this.board, this.solvedBoard, this.solverStrategy)) {
             this.isSolveMethodCalled = true;
             return true;
         }
@@ -154,6 +190,10 @@ public class Sudoku {
     }
 
     public static int[][] solve(int[][] game) throws OutOfGridException, EmptyPuzzleException {
+        return solve(game, DEFAULT_STRATEGY);
+    }
+
+    public static int[][] solve(int[][] game, SolverStrategy strategy) throws OutOfGridException, EmptyPuzzleException {
         if (game.length != 9) throw new OutOfGridException();
 
         boolean areAllValuesEmpty = true;
@@ -167,13 +207,193 @@ public class Sudoku {
 
         if (areAllValuesEmpty) throw new EmptyPuzzleException();
 
-        int[][] clone = new int[GRID_SIZE][];
-        for (int i = 0; i < GRID_SIZE; ++i) {
-            clone[i] = Arrays.copyOf(game[i], game[i].length);
+        int[][] solution = new int[GRID_SIZE][GRID_SIZE];
+        if (!solveInto(game, solution, strategy)) return null;
+
+        return solution;
+    }
+
+    public static PackedBoard solve(PackedBoard game) throws EmptyPuzzleException {
+        return solve(game, DEFAULT_STRATEGY);
+    }
+
+    public static PackedBoard solve(PackedBoard game, SolverStrategy strategy) throws EmptyPuzzleException {
+        if (game.isEmpty()) throw new EmptyPuzzleException();
+
+        SolutionCache cache = solutionCache;
+        PuzzleKey key = cache == null ? null : PuzzleKey.of(game);
+        if (key != null) {
+            byte[] cached = cache.get(key);
+            if (cached != null) return new PackedBoard(cached.clone());
+        }
+
+        byte[] solution = new byte[PackedBoard.CELLS];
+        if (strategy == SolverStrategy.BACKTRACKING) {
+            // the reference solver works on arrays, so it gets an unpacked copy
+            int[][] board = game.toArray();
+            if (!solver(board, 0, 0)) return null;
+            for (int i = 0; i < PackedBoard.CELLS; ++i) {
+                solution[i] = (byte) board[i / 9][i % 9];
+            }
+        } else {
+            SolverEngine engine = engine(strategy);
+            if (!engine.load(game.cells()) || !run(engine)) return null;
+            engine.store(solution);
+        }
+
+        if (key != null) cache.put(key, solution.clone());
+        return new PackedBoard(solution);
+    }
+
+    public static int[][] solveParallel(int[][] game, ForkJoinPool pool) throws OutOfGridException, EmptyPuzzleException {
+        if (game.length != 9) throw new OutOfGridException();
+
+        boolean areAllValuesEmpty = true;
+        for (int[] row : game) {
+            for (int value : row) {
+                if (value != 0) {
+                    areAllValuesEmpty = false;
+                    break;
+                }
+            }
+        }
+        if (areAllValuesEmpty) throw new EmptyPuzzleException();
+
+        return new ParallelSolver(pool, ParallelSolver.DEFAULT_SPLIT_DEPTH).solve(game);
+    }
+
+    // the engines read the source directly, only the reference solver works on a copy
+    private static boolean solveInto(int[][] source, int[][] target, SolverStrategy strategy) {
+        SolutionCache cache = solutionCache;
+        PuzzleKey key = cache == null ? null : PuzzleKey.of(source);
+        if (key != null) {
+            byte[] cached = cache.get(key);
+            if (cached != null) {
+                for (int i = 0; i < PackedBoard.CELLS; ++i) {
+                    target[i / 9][i % 9] = cached[i];
+                }
+                return true;
+            }
+        }
+
+        if (strategy == SolverStrategy.BACKTRACKING) {
+            for (int i = 0; i < GRID_SIZE; ++i) {
+                target[i] = Arrays.copyOf(source[i], source[i].length);
+            }
+            if (!solver(target, 0, 0)) return false;
+        } else {
+            SolverEngine engine = engine(strategy);
+            if (!engine.load(source) || !run(engine)) return false;
+            engine.store(target);
+        }
+
+        if (key != null) {
+            byte[] solution = new byte[PackedBoard.CELLS];
+            for (int i = 0; i < PackedBoard.CELLS; ++i) {
+                solution[i] = (byte) target[i / 9][i % 9];
+            }
+            cache.put(key, solution);
+        }
+        return true;
+    }
+
+    private static boolean run(SolverEngine engine) {
+        SolverMetrics metrics = solverMetrics;
+        if (metrics == null) return engine.solve();
+
+        long start = System.nanoTime();
+        boolean solved = engine.solve();
+        metrics.record(engine, solved ? SolveStatus.SOLVED : SolveStatus.UNSOLVABLE, System.nanoTime() - start);
+        return solved;
+    }
+
+    public static SolveResult solveWithStatistics(int[][] game) throws OutOfGridException, EmptyPuzzleException {
+        return solveWithStatistics(game, DEFAULT_STRATEGY);
+    }
+
+    public static SolveResult solveWithStatistics(int[][] game, SolverStrategy strategy) throws OutOfGridException, EmptyPuzzleException {
+        return solve(game, strategy, SolveLimits.NONE);
+    }
+
+    // the statistics are counted by the engines, so BACKTRACKING is an IllegalArgumentException here
+    public static SolveResult solveWithStatistics(PackedBoard game, SolverStrategy strategy) throws EmptyPuzzleException {
+        return solve(game, strategy, SolveLimits.NONE);
+    }
+
+    public static SolveResult solve(int[][] game, SolveLimits limits) throws OutOfGridException, EmptyPuzzleException {
+        return solve(game, DEFAULT_STRATEGY, limits);
+    }
+
+    // a digit outside 0-9 is UNSOLVABLE like a clashing given, as with solve(int[][]), rather than an exception
+    public static SolveResult solve(int[][] game, SolverStrategy strategy, SolveLimits limits) throws OutOfGridException, EmptyPuzzleException {
+        requireEngine(strategy);
+        if (game.length != 9) throw new OutOfGridException();
+
+        boolean areAllValuesEmpty = true;
+        for (int[] row : game) {
+            if (row.length != 9) throw new OutOfGridException();
+            for (int value : row) {
+                if (value != 0) areAllValuesEmpty = false;
+            }
+        }
+        if (areAllValuesEmpty) throw new EmptyPuzzleException();
+
+        SolverEngine engine = engine(strategy);
+        return solve(engine, limits, () -> engine.load(game));
+    }
+
+    // stops with TIMED_OUT or CANCELLED instead of running on, so untrusted puzzles cannot hold a thread
+    // skips the solution cache so the statistics always describe a real search
+    // the reference backtracker has no limits, so BACKTRACKING is an IllegalArgumentException here
+    public static SolveResult solve(PackedBoard game, SolverStrategy strategy, SolveLimits limits) throws EmptyPuzzleException {
+        requireEngine(strategy);
+        if (game.isEmpty()) throw new EmptyPuzzleException();
+
+        SolverEngine engine = engine(strategy);
+        return solve(engine, limits, () -> engine.load(game.cells()));
+    }
+
+    private static SolveResult solve(SolverEngine engine, SolveLimits limits, BooleanSupplier load) {
+        long start = System.nanoTime();
+        boolean solved;
+        engine.limit(limits.getToken(), limits.getNodeBudget(), limits.deadline(start));
+        try {
+            solved = load.getAsBoolean() && engine.solve();
+        } finally {
+            engine.unlimit();
+        }
+        SolveStatistics statistics = new SolveStatistics(engine, System.nanoTime() - start);
+
+        SolveResult result;
+        if (solved) {
+            byte[] solution = new byte[PackedBoard.CELLS];
+            engine.store(solution);
+            result = new SolveResult(SolveStatus.SOLVED, new PackedBoard(solution), statistics);
+        } else {
+            SolveStatus status = engine.stopReason == null ? SolveStatus.UNSOLVABLE : engine.stopReason;
+            result = new SolveResult(status, null, statistics);
         }
-        if (!solver(clone, 0, 0)) return null;
 
-        return clone;
+        SolverMetrics metrics = solverMetrics;
+        if (metrics != null) metrics.record(result);
+        return result;
+    }
+
+    private static void requireEngine(SolverStrategy strategy) {
+        if (strategy == SolverStrategy.BACKTRACKING) {
+            throw new IllegalArgumentException("The Reference Backtracker Has No Statistics or Limits, Use an Engine Strategy!");
+        }
+    }
+
+    // engines keep their scratch state, so each thread reuses one per strategy
+    private static SolverEngine engine(SolverStrategy strategy) {
+        SolverEngine[] engines = ENGINES.get();
+        SolverEngine engine = engines[strategy.ordinal()];
+        if (engine == null) {
+            engine = SolverEngine.create(strategy);
+            engines[strategy.ordinal()] = engine;
+        }
+        return engine;
     }
 
     private static boolean solver(int[][] game, int currentRow, int currentColumn) {
@@ -199,59 +419,94 @@ public class Sudoku {
         return true;
     }
 
+    // the reference solver again, counting solutions up to the limit instead of stopping at the first
+    private static int counter(int[][] game, int cell, int limit) {
+        while (cell < PackedBoard.CELLS && game[cell / 9][cell % 9] != 0) ++cell;
+        if (cell == PackedBoard.CELLS) return 1;
+
+        int r = cell / 9, c = cell % 9, count = 0;
+        for (int n = 1; n < 10 && count < limit; ++n) {
+            if (!isNumberValid(game, n, r, c)) continue;
+
+            game[r][c] = n;
+            count += counter(game, cell + 1, limit - count);
+            game[r][c] = 0;
+        }
+
+        return count;
+    }
+
     public static int[][] generate(int numberOfSquaresToFill) {
-        int[][] game = new int[GRID_SIZE][GRID_SIZE];
-        creator(game, 0, 0);
+        return generate(numberOfSquaresToFill, new SplittableRandom());
+    }
+
+    // the same seed always gives the same puzzle
+    public static int[][] generate(int numberOfSquaresToFill, long seed) {
+        return generate(numberOfSquaresToFill, new SplittableRandom(seed));
+    }
+
+    public static int[][] generate(int numberOfSquaresToFill, RandomGenerator random) {
+        int[][] game = createSolvedBoard(random);
+        removeSquares(game, numberOfSquaresToFill, random);
+
+        return game;
+    }
 
-        SecureRandom secureRandom = new SecureRandom();
+    private static void removeSquares(int[][] game, int numberOfSquaresToFill, RandomGenerator random) {
         int r = 0, c = 0;
         for (int i = 0; i < 81 - numberOfSquaresToFill; ++i) {
             do {
-                r = secureRandom.nextInt(9);
-                c = secureRandom.nextInt(9);
+                r = random.nextInt(9);
+                c = random.nextInt(9);
             } while (game[r][c] == 0);
             game[r][c] = 0;
         }
+    }
 
-        return game;
+    public static int[][] generateUnique(int numberOfSquaresToFill) {
+        return new PuzzleGenerator(RemovalOrder.RANDOM).generate(numberOfSquaresToFill).getPuzzle();
     }
 
-   private static boolean creator(int[][] game, int currentRow, int currentColumn) {
-       if (currentRow == GRID_SIZE) return true;
+    public static int[][] generateUnique(int numberOfSquaresToFill, long seed) {
+        return new PuzzleGenerator(RemovalOrder.RANDOM, new SplittableRandom(seed)).generate(numberOfSquaresToFill).getPuzzle();
+    }
 
-       SecureRandom secureRandom = new SecureRandom();
-       int[] possibleNumbers = new int[GRID_SIZE];
-       for (int i = 0; i < GRID_SIZE; i++) {
-           possibleNumbers[i] = i + 1;
-       }
+    static int[][] createSolvedBoard(RandomGenerator random) {
+        int[][] game = new int[GRID_SIZE][GRID_SIZE];
+        creator(game, 0, 0, random);
+        return game;
+    }
 
-       int n;
-       for (int r = currentRow; r < GRID_SIZE; ++r) {
-           for (int c = currentColumn; c < GRID_SIZE; ++c) {
-               if (game[r][c] != 0) continue;
+    private static boolean creator(int[][] game, int currentRow, int currentColumn, RandomGenerator random) {
+        if (currentRow == GRID_SIZE) return true;
 
-               // finding the number
-               for (int i = 0; i < GRID_SIZE; ++i) {
-                   // selecting a possible number
-                   do {
-                       n = secureRandom.nextInt(9) + 1;
-                   } while (possibleNumbers[n-1] == 0);
+        for (int r = currentRow; r < GRID_SIZE; ++r) {
+            for (int c = currentColumn; c < GRID_SIZE; ++c) {
+                if (game[r][c] != 0) continue;
 
-                   possibleNumbers[n-1] = 0; // making that number not possible anymore
-                   if (!isNumberValid(game, n, r, c)) continue;
+                // trying the numbers in a Fisher-Yates shuffled order
+                int[] possibleNumbers = new int[GRID_SIZE];
+                for (int i = 0; i < GRID_SIZE; ++i) {
+                    int j = random.nextInt(i + 1);
+                    possibleNumbers[i] = possibleNumbers[j];
+                    possibleNumbers[j] = i + 1;
+                }
 
-                   game[r][c] = n;
-                   if (creator(game, r, c+1)) return true;
-                   game[r][c] = 0;
-               }
+                for (int n : possibleNumbers) {
+                    if (!isNumberValid(game, n, r, c)) continue;
 
-               return false;
-           }
-           currentColumn = 0;
-       }
+                    game[r][c] = n;
+                    if (creator(game, r, c+1, random)) return true;
+                    game[r][c] = 0;
+                }
 
-       return true;
-   }
+                return false;
+            }
+            currentColumn = 0;
+        }
+
+        return true;
+    }
 
     public static boolean isNumberValid(int[][] board, int number, int numberRow, int numberColumn) {
         // searching  in each column of the same square's row
@@ -267,17 +522,11 @@ public class Sudoku {
         }
 
         // searching in the big square of our square
-        int startingRowIndex = 0, startingColumnIndex = 0;
-        if (numberRow < GRID_SIZE) startingRowIndex = 6;
-        if (numberRow < 6) startingRowIndex = 3;
-        if (numberRow < 3 ) startingRowIndex = 0;
-
-        if (numberColumn < GRID_SIZE) startingColumnIndex = 6;
-        if (numberColumn < 6) startingColumnIndex = 3;
-        if (numberColumn < 3 ) startingColumnIndex = 0;
+        int startingRowIndex = numberRow - numberRow % BOX_SIZE;
+        int startingColumnIndex = numberColumn - numberColumn % BOX_SIZE;
 
-        for (int i = startingRowIndex; i < startingRowIndex + 3; ++i) {
-            for (int j = startingColumnIndex; j < startingColumnIndex + 3; ++j) {
+        for (int i = startingRowIndex; i < startingRowIndex + BOX_SIZE; ++i) {
+            for (int j = startingColumnIndex; j < startingColumnIndex + BOX_SIZE; ++j) {
                 if (i == numberRow && j == numberColumn) continue;
                 if (board[i][j] == number) return false;
             }
@@ -350,19 +599,17 @@ public class Sudoku {
     }
 
     public static void saveToFile(int[][] game, String filePath) throws IOException {
-        BufferedWriter writer = new BufferedWriter(new FileWriter(filePath));
+        try (PuzzleWriter writer = PuzzleWriter.open(Path.of(filePath), PuzzleLayout.PRETTY, false)) {
+            writer.write(game);
+        }
+    }
 
-        for (int i = 0; i < GRID_SIZE; ++i) {
-            for (int j = 0; j < GRID_SIZE; ++j) {
-                writer.write(game[i][j] + " ");
-                if ((j+1) % 3 == 0) {
-                    writer.write("  ");
-                }
+    public static void saveToFile(List<int[][]> games, String filePath, PuzzleLayout layout) throws IOException {
+        try (PuzzleWriter writer = PuzzleWriter.open(Path.of(filePath), layout, false)) {
+            for (int[][] game : games) {
+                writer.write(game);
             }
-            writer.newLine();
-            if ((i+1) % 3 == 0) writer.newLine();
         }
-        writer.close();
     }
 
     public void saveSolutionToFile(String filePath) throws EmptyPuzzleException, IOException {
@@ -375,30 +622,113 @@ public class Sudoku {
         saveToFile(Sudoku.generate(numberOfSquaresToFill), filePath);
     }
 
+    // writes count puzzles into one file instead of one file per puzzle
+    public static void generateToFile(String filePath, int numberOfSquaresToFill, int count,
+                                      PuzzleLayout layout, boolean withSolutions) throws IOException {
+        SplittableRandom random = new SplittableRandom();
+        byte[] solution = new byte[PackedBoard.CELLS];
+        byte[] puzzle = new byte[PackedBoard.CELLS];
+
+        try (PuzzleWriter writer = PuzzleWriter.open(Path.of(filePath), layout, false)) {
+            for (int n = 0; n < count; ++n) {
+                int[][] game = createSolvedBoard(random);
+                for (int i = 0; i < PackedBoard.CELLS; ++i) {
+                    solution[i] = (byte) game[i / 9][i % 9];
+                }
+                removeSquares(game, numberOfSquaresToFill, random);
+                for (int i = 0; i < PackedBoard.CELLS; ++i) {
+                    puzzle[i] = (byte) game[i / 9][i % 9];
+                }
+
+                if (withSolutions) {
+                    writer.write(new PackedBoard(puzzle), new PackedBoard(solution));
+                } else {
+                    writer.write(new PackedBoard(puzzle));
+                }
+            }
+        }
+    }
+
     public static boolean isSolvable(int[][] game) {
-        return solver(game, 0, 0);
+        return isSolvable(game, DEFAULT_STRATEGY);
+    }
+
+    public static boolean isSolvable(int[][] game, SolverStrategy strategy) {
+        if (strategy == SolverStrategy.BACKTRACKING) return solver(game, 0, 0);
+
+        SolverEngine engine = engine(strategy);
+        return engine.load(game) && engine.solve();
+    }
+
+    public static int countSolutions(int[][] board, int limit) throws OutOfGridException {
+        return countSolutions(board, limit, DEFAULT_STRATEGY);
+    }
+
+    // the board is only read, so shared boards can be counted from several threads
+    public static int countSolutions(int[][] board, int limit, SolverStrategy strategy) throws OutOfGridException {
+        if (board.length != 9) throw new OutOfGridException();
+        for (int[] row : board) {
+            if (row.length != 9) throw new OutOfGridException();
+        }
+
+        if (strategy == SolverStrategy.BACKTRACKING) {
+            // the reference solver fills its board, so it counts on a copy after checking the givens themselves
+            int[][] game = new int[GRID_SIZE][];
+            for (int i = 0; i < GRID_SIZE; ++i) {
+                game[i] = Arrays.copyOf(board[i], GRID_SIZE);
+                for (int j = 0; j < GRID_SIZE; ++j) {
+                    int n = game[i][j];
+                    if (n < 0 || n > 9) return 0;
+                    if (n != 0 && !isNumberValid(board, n, i, j)) return 0;
+                }
+            }
+            // a limit of zero or less counts nothing, as in every engine
+            return limit <= 0 ? 0 : counter(game, 0, limit);
+        }
+
+        SolverEngine engine = engine(strategy);
+        if (!engine.load(board)) return 0;
+
+        return engine.countSolutions(limit);
+    }
+
+    public static int countSolutions(PackedBoard board, int limit) {
+        SolverEngine engine = engine(DEFAULT_STRATEGY);
+        if (!engine.load(board.cells())) return 0;
+
+        return engine.countSolutions(limit);
+    }
+
+    public static boolean hasUniqueSolution(int[][] board) throws OutOfGridException {
+        return countSolutions(board, 2) == 1;
     }
 
     public static boolean isSolutionCorrect(int[][] initialBoard, int[][] solution) throws OutOfGridException, EmptyPuzzleException {
         if (initialBoard.length != 9 || solution.length != 9) {
             throw new OutOfGridException();
         }
+        for (int i = 0; i < GRID_SIZE; ++i) {
+            if (initialBoard[i].length != 9 || solution[i].length != 9) throw new OutOfGridException();
+        }
 
         boolean areAllValuesEmpty = true;
-        for (int i = 0; i < GRID_SIZE; ++i) {
+        for (int i = 0; i < GRID_SIZE && areAllValuesEmpty; ++i) {
             for (int j = 0; j < GRID_SIZE; ++j) {
                 if (initialBoard[i][j] != 0 || solution[i][j] != 0) {
                     areAllValuesEmpty = false;
+                    break;
                 }
-
-                if (solution[i][j] == 0) return false;
-                if (!isNumberValid(solution, solution[i][j], i, j)) return false;
-                if (initialBoard[i][j] == 0) continue;
-                if (initialBoard[i][j] != solution[i][j]) return false;
             }
         }
         if (areAllValuesEmpty) throw new EmptyPuzzleException();
 
-        return true;
+        return SolutionValidator.isValid(initialBoard, solution);
+    }
+
+    public static boolean isSolutionCorrect(PackedBoard initialBoard, PackedBoard solution) throws EmptyPuzzleException {
+        // the same rule as the array version: only two blank boards are an error, a blank solution is just wrong
+        if (initialBoard.isEmpty() && solution.isEmpty()) throw new EmptyPuzzleException();
+
+        return SolutionValidator.isValid(initialBoard, solution);
     }
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package sudoku;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class SudokuBatchSolver {
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+    // enough chunks to keep every core busy while the oldest one is drained
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4 * Runtime.getRuntime().availableProcessors();
+
+    private final ExecutorService executor;
+    private final SolverStrategy strategy;
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final SolverMetrics metrics;
+    // engines are borrowed per chunk, so pooled and virtual threads both reuse scratch state
+    private final ConcurrentLinkedQueue<SolverEngine> engines = new ConcurrentLinkedQueue<>();
+
+    public SudokuBatchSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // accepts a ForkJoinPool as well as a virtual-thread-per-task executor
+    public SudokuBatchSolver(ExecutorService executor) {
+        this(executor, Sudoku.DEFAULT_STRATEGY, DEFAULT_CHUNK_SIZE);
+    }
+
+    public SudokuBatchSolver(ExecutorService executor, SolverStrategy strategy, int chunkSize) {
+        this(executor, strategy, chunkSize, null);
+    }
+
+    // every solve of the batch adds to metrics, which several batch solvers may share
+    public SudokuBatchSolver(ExecutorService executor, SolverStrategy strategy, int chunkSize, SolverMetrics metrics) {
+        this(executor, strategy, chunkSize, DEFAULT_MAX_IN_FLIGHT, metrics);
+    }
+
+    // at most maxInFlight chunks are submitted and not yet collected, so a long input is never read ahead in full
+    public SudokuBatchSolver(ExecutorService executor, SolverStrategy strategy, int chunkSize, int maxInFlight,
+            SolverMetrics metrics) {
+        if (strategy == SolverStrategy.BACKTRACKING) {
+            throw new IllegalArgumentException("The Batch Solver Needs a Mask-Based Strategy!");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The Chunk Size Must Be Positive!");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("The Number of Chunks in Flight Must Be Positive!");
+        }
+
+        this.executor = executor;
+        this.strategy = strategy;
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+        this.metrics = metrics;
+    }
+
+    // results keep the input order, unsolvable or malformed puzzles give null
+    public List<int[][]> solveAll(List<int[][]> puzzles) throws InterruptedException {
+        return solveAll(puzzles.iterator());
+    }
+
+    public List<int[][]> solveAll(Stream<int[][]> puzzles) throws InterruptedException {
+        return solveAll(puzzles.iterator());
+    }
+
+    public List<int[][]> solveAll(Iterator<int[][]> puzzles) throws InterruptedException {
+        List<int[][]> results = new ArrayList<>();
+        solveAll(puzzles, results::add);
+        return results;
+    }
+
+    // hands every result to sink in input order as soon as its chunk is done, without collecting them
+    public void solveAll(Stream<int[][]> puzzles, Consumer<int[][]> sink) throws InterruptedException {
+        solveAll(puzzles.iterator(), sink);
+    }
+
+    public void solveAll(Iterator<int[][]> puzzles, Consumer<int[][]> sink) throws InterruptedException {
+        ArrayDeque<Future<int[][][]>> inFlight = new ArrayDeque<>(this.maxInFlight);
+        try {
+            while (puzzles.hasNext()) {
+                // waiting on the oldest chunk before reading more keeps the input and the results bounded
+                if (inFlight.size() == this.maxInFlight) drain(inFlight.poll(), sink);
+
+                int[][][] chunk = new int[this.chunkSize][][];
+                int size = 0;
+                while (size < this.chunkSize && puzzles.hasNext()) {
+                    chunk[size++] = puzzles.next();
+                }
+
+                int chunkLength = size;
+                inFlight.add(this.executor.submit(() -> solveChunk(chunk, chunkLength)));
+            }
+
+            while (!inFlight.isEmpty()) {
+                drain(inFlight.poll(), sink);
+            }
+        } finally {
+            for (Future<int[][][]> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static void drain(Future<int[][][]> future, Consumer<int[][]> sink) throws InterruptedException {
+        int[][][] solved;
+        try {
+            solved = future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        for (int[][] solution : solved) {
+            sink.accept(solution);
+        }
+    }
+
+    private int[][][] solveChunk(int[][][] chunk, int size) {
+        SolverEngine engine = this.engines.poll();
+        if (engine == null) engine = SolverEngine.create(this.strategy);
+
+        int[][][] solved = new int[size][][];
+        try {
+            for (int i = 0; i < size; ++i) {
+                solved[i] = solveOne(engine, chunk[i]);
+            }
+        } finally {
+            this.engines.offer(engine);
+        }
+
+        return solved;
+    }
+
+    private int[][] solveOne(SolverEngine engine, int[][] puzzle) {
+        if (puzzle == null || puzzle.length != Sudoku.GRID_SIZE) return null;
+        for (int[] row : puzzle) {
+            if (row == null || row.length != Sudoku.GRID_SIZE) return null;
+        }
+
+        if (!engine.load(puzzle)) return null;
+
+        boolean solved;
+        if (this.metrics == null) {
+            solved = engine.solve();
+        } else {
+            long start = System.nanoTime();
+            solved = engine.solve();
+            this.metrics.record(engine, solved ? SolveStatus.SOLVED : SolveStatus.UNSOLVABLE, System.nanoTime() - start);
+        }
+        if (!solved) return null;
+
+        int[][] solution = new int[Sudoku.GRID_SIZE][Sudoku.GRID_SIZE];
+        engine.store(solution);
+        return solution;
+    }
+}
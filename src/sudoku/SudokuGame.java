@@ -0,0 +1,171 @@
+package sudoku;
+
+import java.util.Arrays;
+
+// mutable board for live play; every move keeps per-unit digit counts current, so checks never rescan the grid
+public class SudokuGame {
+    public static final int ROW_CONFLICT = 1;
+    public static final int COLUMN_CONFLICT = 2;
+    public static final int BOX_CONFLICT = 4;
+
+    private final byte[] cells;
+    private final long lowGivens;
+    private final long highGivens;
+    // how often each digit appears in each unit, units are ordered rows, columns, boxes
+    private final byte[] counts = new byte[27 * 9];
+    private final short[] unitMasks = new short[27];
+    private int filled;
+    private int conflicts;
+    // each entry packs the cell, the digit before the move and the digit after it
+    private int[] history = new int[16];
+    private int historySize;
+
+    public SudokuGame(int[][] board) throws OutOfGridException {
+        this(PackedBoard.of(board));
+    }
+
+    public SudokuGame(PackedBoard board) {
+        this.cells = new byte[PackedBoard.CELLS];
+
+        long lowGivens = 0, highGivens = 0;
+        for (int i = 0; i < PackedBoard.CELLS; ++i) {
+            int digit = board.get(i);
+            if (digit == 0) continue;
+
+            if (i < 64) {
+                lowGivens |= 1L << i;
+            } else {
+                highGivens |= 1L << (i - 64);
+            }
+            add(i, digit);
+        }
+        this.lowGivens = lowGivens;
+        this.highGivens = highGivens;
+    }
+
+    public int get(int row, int column) {
+        return this.cells[index(row, column)];
+    }
+
+    public boolean isGiven(int row, int column) {
+        int cell = index(row, column);
+        return cell < 64 ? (this.lowGivens & (1L << cell)) != 0 : (this.highGivens & (1L << (cell - 64))) != 0;
+    }
+
+    // false when the cell holds a given
+    public boolean place(int row, int column, int digit) {
+        if (digit < 0 || digit > 9) throw new NumberFormatException("Not a Sudoku Digit: " + digit);
+        if (isGiven(row, column)) return false;
+
+        int cell = index(row, column), previous = this.cells[cell];
+        if (previous == digit) return true;
+
+        if (this.historySize == this.history.length) {
+            this.history = Arrays.copyOf(this.history, this.historySize * 2);
+        }
+        this.history[this.historySize++] = cell << 8 | previous << 4 | digit;
+
+        change(cell, previous, digit);
+        return true;
+    }
+
+    public boolean erase(int row, int column) {
+        return place(row, column, 0);
+    }
+
+    public boolean undo() {
+        if (this.historySize == 0) return false;
+
+        int move = this.history[--this.historySize];
+        int cell = move >>> 8, previous = (move >>> 4) & 15, digit = move & 15;
+        change(cell, digit, previous);
+        return true;
+    }
+
+    // whether the digit could go in the cell without repeating in its row, column or box
+    public boolean isLegal(int row, int column, int digit) {
+        if (digit < 1 || digit > 9) return false;
+
+        int cell = index(row, column), own = this.cells[cell] == digit ? 1 : 0;
+        int d = digit - 1;
+        return this.counts[SolverEngine.ROW[cell] * 9 + d] == own
+                && this.counts[(9 + SolverEngine.COLUMN[cell]) * 9 + d] == own
+                && this.counts[(18 + SolverEngine.BOX[cell]) * 9 + d] == own;
+    }
+
+    // the digits that are still possible in the cell as a 9-bit mask, bit 0 for the digit 1
+    public int candidates(int row, int column) {
+        int cell = index(row, column);
+        int used = this.unitMasks[SolverEngine.ROW[cell]] | this.unitMasks[9 + SolverEngine.COLUMN[cell]]
+                | this.unitMasks[18 + SolverEngine.BOX[cell]];
+        if (this.cells[cell] != 0 && isLegal(row, column, this.cells[cell])) used &= ~(1 << (this.cells[cell] - 1));
+        return ~used & SolverEngine.ALL_DIGITS;
+    }
+
+    // a combination of ROW_CONFLICT, COLUMN_CONFLICT and BOX_CONFLICT, 0 when the cell clashes with nothing
+    public int conflictsOf(int row, int column) {
+        int cell = index(row, column), digit = this.cells[cell];
+        if (digit == 0) return 0;
+
+        int d = digit - 1, conflicts = 0;
+        if (this.counts[SolverEngine.ROW[cell] * 9 + d] > 1) conflicts |= ROW_CONFLICT;
+        if (this.counts[(9 + SolverEngine.COLUMN[cell]) * 9 + d] > 1) conflicts |= COLUMN_CONFLICT;
+        if (this.counts[(18 + SolverEngine.BOX[cell]) * 9 + d] > 1) conflicts |= BOX_CONFLICT;
+        return conflicts;
+    }
+
+    public boolean hasConflicts() {
+        return this.conflicts != 0;
+    }
+
+    public boolean isComplete() {
+        return this.filled == PackedBoard.CELLS && this.conflicts == 0;
+    }
+
+    public int getFilledCount() {
+        return this.filled;
+    }
+
+    public PackedBoard toPackedBoard() {
+        return new PackedBoard(this.cells.clone());
+    }
+
+    private void change(int cell, int from, int to) {
+        if (from != 0) remove(cell, from);
+        if (to != 0) add(cell, to);
+    }
+
+    private void add(int cell, int digit) {
+        this.cells[cell] = (byte) digit;
+        ++this.filled;
+        count(SolverEngine.ROW[cell], digit, 1);
+        count(9 + SolverEngine.COLUMN[cell], digit, 1);
+        count(18 + SolverEngine.BOX[cell], digit, 1);
+    }
+
+    private void remove(int cell, int digit) {
+        this.cells[cell] = 0;
+        --this.filled;
+        count(SolverEngine.ROW[cell], digit, -1);
+        count(9 + SolverEngine.COLUMN[cell], digit, -1);
+        count(18 + SolverEngine.BOX[cell], digit, -1);
+    }
+
+    private void count(int unit, int digit, int change) {
+        int index = unit * 9 + digit - 1;
+        int before = this.counts[index], after = before + change;
+        this.counts[index] = (byte) after;
+
+        if (before <= 1 && after > 1) ++this.conflicts;
+        if (before > 1 && after <= 1) --this.conflicts;
+        if (after == 0) this.unitMasks[unit] &= (short) ~(1 << (digit - 1));
+        if (before == 0) this.unitMasks[unit] |= (short) (1 << (digit - 1));
+    }
+
+    private static int index(int row, int column) {
+        if (row < 0 || row >= Sudoku.GRID_SIZE || column < 0 || column >= Sudoku.GRID_SIZE) {
+            throw new IndexOutOfBoundsException("The Square (" + row + ", " + column + ") Is Outside the Grid!");
+        }
+        return row * 9 + column;
+    }
+}
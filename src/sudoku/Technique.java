@@ -0,0 +1,33 @@
+package sudoku;
+
+// solving techniques from the cheapest to the hardest, each with the weight it adds to a rating
+public enum Technique {
+    NAKED_SINGLE(1, Difficulty.EASY),
+    HIDDEN_SINGLE(2, Difficulty.EASY),
+    POINTING_PAIR(5, Difficulty.MEDIUM),
+    BOX_LINE_REDUCTION(6, Difficulty.MEDIUM),
+    NAKED_PAIR(8, Difficulty.MEDIUM),
+    HIDDEN_PAIR(10, Difficulty.MEDIUM),
+    NAKED_TRIPLE(12, Difficulty.HARD),
+    HIDDEN_TRIPLE(14, Difficulty.HARD),
+    X_WING(20, Difficulty.HARD),
+    SWORDFISH(30, Difficulty.HARD),
+    BRUTE_FORCE(100, Difficulty.EXPERT);
+
+    private final int weight;
+    private final Difficulty difficulty;
+
+    Technique(int weight, Difficulty difficulty) {
+        this.weight = weight;
+        this.difficulty = difficulty;
+    }
+
+    public int getWeight() {
+        return this.weight;
+    }
+
+    // the difficulty of a puzzle whose hardest required technique is this one
+    public Difficulty getDifficulty() {
+        return this.difficulty;
+    }
+}
@@ -0,0 +1,108 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// solves any ConstraintModel on the MRV engine, configured with the model's regions, extra units and cages
+// the model is compiled into peer and cage tables once, so one solver can be reused for every puzzle of a pack
+// keeps its own scratch state, so use one solver per thread
+public class VariantSolver {
+    private final MrvSolver engine = new MrvSolver();
+    private final int[][] peers = new int[SolverEngine.CELLS][];
+    private final int[][] cages;
+    private final int[] cageSums;
+
+    public VariantSolver(ConstraintModel model) {
+        this.engine.configure(model);
+
+        List<int[]> groups = new ArrayList<>(model.units());
+        groups.addAll(model.cageCells());
+
+        long[] low = new long[SolverEngine.CELLS], high = new long[SolverEngine.CELLS];
+        for (int[] group : groups) {
+            for (int cell : group) {
+                for (int other : group) {
+                    if (other == cell) continue;
+                    if (other < 64) low[cell] |= 1L << other;
+                    else high[cell] |= 1L << (other - 64);
+                }
+            }
+        }
+
+        for (int cell = 0; cell < SolverEngine.CELLS; ++cell) {
+            int[] list = new int[Long.bitCount(low[cell]) + Long.bitCount(high[cell])];
+            int n = 0;
+            for (long bits = low[cell]; bits != 0; bits &= bits - 1) {
+                list[n++] = Long.numberOfTrailingZeros(bits);
+            }
+            for (long bits = high[cell]; bits != 0; bits &= bits - 1) {
+                list[n++] = 64 + Long.numberOfTrailingZeros(bits);
+            }
+            this.peers[cell] = list;
+        }
+
+        this.cages = model.cageCells().toArray(new int[0][]);
+        this.cageSums = model.cageSums().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // null when the board has no solution under the model's rules
+    public int[][] solve(int[][] board) throws OutOfGridException {
+        checkShape(board);
+        if (!this.engine.load(board) || !this.engine.solve()) return null;
+
+        int[][] solved = new int[9][9];
+        this.engine.store(solved);
+        return solved;
+    }
+
+    public int countSolutions(int[][] board, int limit) throws OutOfGridException {
+        checkShape(board);
+        if (!this.engine.load(board)) return 0;
+
+        return this.engine.countSolutions(limit);
+    }
+
+    public boolean hasUniqueSolution(int[][] board) throws OutOfGridException {
+        return countSolutions(board, 2) == 1;
+    }
+
+    // every group differs, every cage adds up and the givens were kept
+    public boolean isSolutionCorrect(int[][] initialBoard, int[][] solution) throws OutOfGridException {
+        checkShape(initialBoard);
+        checkShape(solution);
+
+        for (int cell = 0; cell < SolverEngine.CELLS; ++cell) {
+            int digit = solution[cell / 9][cell % 9], given = initialBoard[cell / 9][cell % 9];
+            if (digit < 1 || digit > 9 || (given != 0 && given != digit)) return false;
+
+            for (int peer : this.peers[cell]) {
+                if (solution[peer / 9][peer % 9] == digit) return false;
+            }
+        }
+
+        // the cage squares are peers, so their digits already differ
+        for (int i = 0; i < this.cages.length; ++i) {
+            int sum = 0;
+            for (int cell : this.cages[i]) {
+                sum += solution[cell / 9][cell % 9];
+            }
+            if (sum != this.cageSums[i]) return false;
+        }
+        return true;
+    }
+
+    // the variant version of Sudoku.isNumberValid, cage sums are left to the solver
+    public boolean isNumberValid(int[][] board, int number, int numberRow, int numberColumn) {
+        for (int peer : this.peers[numberRow * 9 + numberColumn]) {
+            if (board[peer / 9][peer % 9] == number) return false;
+        }
+        return true;
+    }
+
+    private static void checkShape(int[][] board) throws OutOfGridException {
+        if (board.length != 9) throw new OutOfGridException();
+        for (int[] row : board) {
+            if (row.length != 9) throw new OutOfGridException();
+        }
+    }
+}